@@ -0,0 +1,57 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.dexsys.mortgageapplicationservice.model.PreQualificationResponse;
+import ru.dexsys.mortgageapplicationservice.service.AnnuityPaymentEngine;
+import ru.dexsys.mortgageapplicationservice.service.PreQualificationService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AffordabilityBenchmark {
+
+    private AnnuityPaymentEngine paymentEngine;
+    private PreQualificationService preQualificationService;
+    private BigDecimal salary;
+    private BigDecimal creditAmount;
+    private BigDecimal monthlyPayment;
+
+    @Setup
+    public void setUp() {
+        paymentEngine = new AnnuityPaymentEngine(new BigDecimal("7.5"));
+        preQualificationService = new PreQualificationService(paymentEngine);
+        salary = new BigDecimal("80000");
+        creditAmount = new BigDecimal("3000000");
+        monthlyPayment = new BigDecimal("35610.53");
+    }
+
+    @Benchmark
+    public boolean compareSalaryWithDoublePayment() {
+        return salary.compareTo(monthlyPayment.multiply(BigDecimal.valueOf(2))) > 0;
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyPaymentLocally() {
+        return paymentEngine.calculateMonthlyPayment(creditAmount, 120);
+    }
+
+    @Benchmark
+    public PreQualificationResponse preQualifyAllDurations() {
+        return preQualificationService.preQualify(salary);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.dexsys.mortgageapplicationservice.MortgageApplicationServiceApplication;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.repository.ClientRepository;
+import ru.dexsys.mortgageapplicationservice.service.ClientService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuplicateLookupBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ClientRepository clientRepository;
+    private ClientService clientService;
+    private Client existingClient;
+    private Client newClient;
+    private String existingIdentityHash;
+    private String newIdentityHash;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(MortgageApplicationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "mortgage.calculator.mode=local")
+                .run();
+        clientRepository = context.getBean(ClientRepository.class);
+        clientService = context.getBean(ClientService.class);
+
+        List<Client> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(SampleClients.client(String.valueOf(1_000_000_000L + i)));
+            if (batch.size() == 1000) {
+                clientService.saveClients(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        clientService.saveClients(batch);
+
+        existingClient = SampleClients.client(String.valueOf(1_000_000_000L + rows / 2));
+        newClient = SampleClients.client("0000000000");
+        existingIdentityHash = ClientIdentity.hash(existingClient);
+        newIdentityHash = ClientIdentity.hash(newClient);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public boolean repositoryLookupExisting() {
+        return clientRepository.existsByIdentityHash(existingIdentityHash);
+    }
+
+    @Benchmark
+    public boolean repositoryLookupNew() {
+        return clientRepository.existsByIdentityHash(newIdentityHash);
+    }
+
+    @Benchmark
+    public boolean serviceCheckExisting() {
+        return clientService.hasClientDuplicate(existingClient);
+    }
+
+    @Benchmark
+    public boolean serviceCheckNew() {
+        return clientService.hasClientDuplicate(newClient);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import ru.dexsys.mortgageapplicationservice.controller.ClientController;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorMappingBenchmark {
+
+    @Param({"date", "gender", "other"})
+    private String error;
+
+    private ClientController clientController;
+    private HttpMessageNotReadableException exception;
+
+    @Setup
+    public void setUp() {
+        clientController = new ClientController(null, null, null, null, new ApplicationMetrics(new SimpleMeterRegistry()));
+        String message;
+        switch (error) {
+            case "date":
+                message = "JSON parse error: Cannot deserialize value of type `java.time.LocalDate` from String " +
+                        "\"1990-13-45\": Failed to deserialize java.time.LocalDate: (java.time.format.DateTimeParseException) " +
+                        "Text '1990-13-45' could not be parsed: Invalid value for MonthOfYear (valid values 1 - 12): 13";
+                break;
+            case "gender":
+                message = "JSON parse error: Cannot deserialize value of type " +
+                        "`ru.dexsys.mortgageapplicationservice.entity.Client$Gender` from String \"OTHER\": " +
+                        "not one of the values accepted for Enum class: [MALE, FEMALE]";
+                break;
+            default:
+                message = "JSON parse error: Unexpected character ('}' (code 125)): was expecting double-quote " +
+                        "to start field name";
+        }
+        exception = new HttpMessageNotReadableException(message, (HttpInputMessage) null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleException() {
+        return clientController.handleException(exception);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.model.CalculateResponse;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Client client;
+    private CalculateResponse calculateResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        client = SampleClients.client("9410123456");
+        calculateResponse = new CalculateResponse(new BigDecimal("3000000"), 120);
+        calculateResponse.setMonthlyPayment(new BigDecimal("35610.53"));
+    }
+
+    @Benchmark
+    public Client deserializeClient() throws Exception {
+        return objectMapper.readValue(SampleClients.CLIENT_JSON, Client.class);
+    }
+
+    @Benchmark
+    public byte[] serializeClient() throws Exception {
+        return objectMapper.writeValueAsBytes(client);
+    }
+
+    @Benchmark
+    public CalculateResponse deserializeCalculateResponse() throws Exception {
+        return objectMapper.readValue(SampleClients.CALCULATE_RESPONSE_JSON, CalculateResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCalculateResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(calculateResponse);
+    }
+}
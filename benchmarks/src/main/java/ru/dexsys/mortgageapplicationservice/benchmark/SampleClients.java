@@ -0,0 +1,46 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+final class SampleClients {
+
+    static final String CLIENT_JSON = "{\n" +
+            "  \"firstName\": \"Иван\",\n" +
+            "  \"secondName\": \"Иванович\",\n" +
+            "  \"lastName\": \"Иванов\",\n" +
+            "  \"passport\": \"9410123456\",\n" +
+            "  \"birthDate\": \"1990-10-23\",\n" +
+            "  \"gender\": \"MALE\",\n" +
+            "  \"salary\": 80000,\n" +
+            "  \"creditAmount\": 3000000,\n" +
+            "  \"durationInMonths\": 120\n" +
+            "}";
+
+    static final String CALCULATE_RESPONSE_JSON = "{\n" +
+            "  \"creditAmount\": 3000000,\n" +
+            "  \"durationInMonths\": 120,\n" +
+            "  \"monthlyPayment\": 35610.53\n" +
+            "}";
+
+    private SampleClients() {
+    }
+
+    static Client client(String passport) {
+        Client client = new Client();
+        client.setFirstName("Иван");
+        client.setSecondName("Иванович");
+        client.setLastName("Иванов");
+        client.setPassport(passport);
+        client.setBirthDate(LocalDate.of(1990, 10, 23));
+        client.setGender(Client.Gender.MALE);
+        client.setSalary(new BigDecimal("80000"));
+        client.setCreditAmount(new BigDecimal("3000000"));
+        client.setDurationInMonths(120);
+        client.setStatus(Client.MortgageApplicationStatus.APPROVED);
+        client.setMonthlyPayment(new BigDecimal("35610.53"));
+        return client;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.dexsys.mortgageapplicationservice.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.dexsys.mortgageapplicationservice.MortgageApplicationServiceApplication;
+import ru.dexsys.mortgageapplicationservice.SchemaMigration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from SpringApplication.run to a ready web application, measured cold: every fork starts a single
+ * application in a fresh JVM, as a new instance does after a scale-out. The schema is migrated beforehand
+ * by a separate java process, so the fast-startup profile, which skips Liquibase, starts against the same
+ * database as the default one.
+ * Add -jvmArgsAppend -XX:SharedArchiveFile=... to measure with a class-data-sharing archive.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-startup"})
+    private String profile;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        postgres = EmbeddedPostgres.start();
+        migrateInChildProcess();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeContext() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startApplication() {
+        context = new SpringApplicationBuilder(MortgageApplicationServiceApplication.class)
+                .profiles(profile)
+                .properties(dataSourceProperties())
+                .properties("server.port=0", "mortgage.calculator.mode=local")
+                .run();
+        return context;
+    }
+
+    /**
+     * Liquibase runs in its own JVM: migrating in the fork would load and compile the Spring, JDBC driver
+     * and Liquibase classes before the measured start and make it look warmer than a new instance.
+     */
+    private void migrateInChildProcess() throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SchemaMigration.class.getName());
+        for (String property : dataSourceProperties()) {
+            command.add("--" + property);
+        }
+        Process migration = new ProcessBuilder(command).inheritIO().start();
+        int exitCode = migration.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Schema migration exited with " + exitCode);
+        }
+    }
+
+    private String[] dataSourceProperties() {
+        return new String[]{
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres"};
+    }
+}
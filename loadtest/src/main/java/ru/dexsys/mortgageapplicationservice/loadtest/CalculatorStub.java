@@ -0,0 +1,102 @@
+package ru.dexsys.mortgageapplicationservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.dexsys.mortgageapplicationservice.model.CalculateResponse;
+import ru.dexsys.mortgageapplicationservice.service.AnnuityPaymentEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the calculator service on a local port. Each call waits for the configured latency plus an
+ * exponentially distributed jitter, then fails with 500 at the configured error rate or answers with the
+ * annuity payment. Latency and error rate may be changed while a test runs.
+ */
+final class CalculatorStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnnuityPaymentEngine paymentEngine;
+    private volatile Duration latency;
+    private volatile Duration latencyJitter;
+    private volatile double errorRate;
+
+    CalculatorStub(BigDecimal annualRate, Duration latency, Duration latencyJitter, double errorRate)
+            throws IOException {
+        this.paymentEngine = new AnnuityPaymentEngine(annualRate);
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Latency is simulated by sleeping, so every call needs its own thread
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/calculate", this::handle);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/calculate";
+    }
+
+    void setLatency(Duration latency, Duration latencyJitter) {
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+    }
+
+    void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            CalculateResponse request = objectMapper.readValue(body, CalculateResponse.class);
+            sleep();
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            request.setMonthlyPayment(paymentEngine.calculateMonthlyPayment(request.getCreditAmount(),
+                    request.getDurationInMonths()));
+            byte[] response = objectMapper.writeValueAsBytes(request);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sleep() {
+        long jitterNanos = latencyJitter.toNanos();
+        long nanos = latency.toNanos()
+                + (jitterNanos == 0 ? 0 : (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * jitterNanos));
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.dexsys.mortgageapplicationservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are started on a fixed schedule whether or not earlier ones have completed, so
+ * a slow service builds up a backlog instead of slowing the generator down. Latency is measured from the
+ * scheduled start rather than the actual send, which keeps generator stalls from hiding queueing delay
+ * (coordinated omission).
+ */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int KNOWN_LOCATIONS = 10_000;
+    private static final long FIRST_PASSPORT = 1_000_000_000L;
+    private static final long PASSPORTS = 8_000_000_000L;
+
+    enum Operation {
+        POST, GET
+    }
+
+    private final HttpClient httpClient;
+    private final URI applicationUri;
+    private final double getRatio;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    // Each run starts at a random ten-digit passport, so a rerun against the same database does not
+    // collide with the identities of earlier runs and measure nothing but 409s
+    private final AtomicLong passports =
+            new AtomicLong(FIRST_PASSPORT + ThreadLocalRandom.current().nextLong(PASSPORTS));
+    private final AtomicReferenceArray<URI> locations = new AtomicReferenceArray<>(KNOWN_LOCATIONS);
+    private final AtomicLong created = new AtomicLong();
+    private final LongAdder inFlight = new LongAdder();
+
+    LoadGenerator(URI baseUri, double getRatio) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.applicationUri = baseUri.resolve("/mortgage/application");
+        this.getRatio = getRatio;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Issues requests at the given rate for the given duration and returns once every request has completed.
+     */
+    void run(double requestsPerSecond, Duration duration) {
+        long intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            send(scheduled);
+        }
+        while (inFlight.sum() > 0) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    /**
+     * Returns the latencies in nanoseconds recorded since the previous call and resets them.
+     */
+    Map<Operation, Histogram> takeHistograms() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    /**
+     * Returns the response status counts recorded since the previous call and resets them. Status 0 stands
+     * for requests that failed without a response.
+     */
+    Map<Operation, Map<Integer, Long>> takeStatuses() {
+        Map<Operation, Map<Integer, Long>> counts = new EnumMap<>(Operation.class);
+        statuses.forEach((operation, byStatus) -> {
+            Map<Integer, Long> operationCounts = new TreeMap<>();
+            byStatus.forEach((status, count) -> operationCounts.put(status, count.sumThenReset()));
+            counts.put(operation, operationCounts);
+        });
+        return counts;
+    }
+
+    private void send(long scheduled) {
+        long known = Math.min(created.get(), KNOWN_LOCATIONS);
+        // A slot may still be empty while the response that filled it is being recorded
+        URI location = known > 0 && ThreadLocalRandom.current().nextDouble() < getRatio
+                ? locations.get(ThreadLocalRandom.current().nextInt((int) known)) : null;
+        Operation operation = location != null ? Operation.GET : Operation.POST;
+        HttpRequest request = operation == Operation.GET
+                ? HttpRequest.newBuilder(location)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build()
+                : HttpRequest.newBuilder(applicationUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(clientJson(passports.getAndIncrement())))
+                .build();
+
+        inFlight.increment();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    recorders.get(operation).recordValue(System.nanoTime() - scheduled);
+                    int status = error == null ? response.statusCode() : 0;
+                    statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+                    if (operation == Operation.POST && status == 201) {
+                        response.headers().firstValue("Location").map(URI::create).ifPresent(this::remember);
+                    }
+                    inFlight.decrement();
+                });
+    }
+
+    private void remember(URI location) {
+        long index = created.getAndIncrement();
+        locations.set((int) (index % KNOWN_LOCATIONS), location);
+    }
+
+    private static String clientJson(long passport) {
+        return "{" +
+                "\"firstName\":\"Иван\"," +
+                "\"secondName\":\"Иванович\"," +
+                "\"lastName\":\"Иванов\"," +
+                "\"passport\":\"" + passport + "\"," +
+                "\"birthDate\":\"1990-10-23\"," +
+                "\"gender\":\"MALE\"," +
+                "\"salary\":80000," +
+                "\"creditAmount\":3000000," +
+                "\"durationInMonths\":" + (60 + passport % 240) +
+                "}";
+    }
+}
@@ -0,0 +1,197 @@
+package ru.dexsys.mortgageapplicationservice.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.dexsys.mortgageapplicationservice.MortgageApplicationServiceApplication;
+import ru.dexsys.mortgageapplicationservice.config.VirtualThreads;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the service against an embedded Postgres and a local calculator stub, drives it with an open-model
+ * POST/GET mix and prints throughput and latency percentiles. Nothing leaves the machine, so builds and
+ * configurations can be compared run by run.
+ * <p>
+ * Options, all as --name=value:
+ * <ul>
+ *     <li>rate: requests per second, default 100</li>
+ *     <li>duration, warm-up: ISO durations of the measured and the discarded phase, default PT60S and PT10S</li>
+ *     <li>get-ratio: share of GET requests once applications exist, default 0.8</li>
+ *     <li>stub-latency, stub-latency-jitter: fixed and mean exponential calculator delay, default PT0.05S and
+ *     PT0.02S</li>
+ *     <li>stub-error-rate: share of calculator calls answered with 500, default 0</li>
+ *     <li>target: base URL of an already running service; the embedded database, stub and service are then
+ *     not started</li>
+ *     <li>compare-threading: true to run the service twice, on platform threads and with the virtual-threads
+ *     profile, each on a fresh database and with the concurrency limit off, and print both reports; needs
+ *     Java 21 or later</li>
+ * </ul>
+ * Any other argument, such as --spring.profiles.active=fast-startup, is passed to the service.
+ * <p>
+ * For the threading comparison, a rate above what 200 Tomcat threads sustain with the given stub latency,
+ * and --get-ratio=0 so that every request waits for the calculator, show the difference; the p99 and the
+ * 503 count matter more than req/s, which the open model holds at the rate.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : "";
+            if (isOption(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        Duration warmUp = Duration.parse(options.getOrDefault("warm-up", "PT10S"));
+        double getRatio = Double.parseDouble(options.getOrDefault("get-ratio", "0.8"));
+
+        if (options.containsKey("target")) {
+            System.out.print(run(URI.create(options.get("target")), rate, duration, warmUp, getRatio));
+            return;
+        }
+        boolean compareThreading = Boolean.parseBoolean(options.getOrDefault("compare-threading", "false"));
+        if (compareThreading && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("--compare-threading needs Java 21 or later, running on "
+                    + System.getProperty("java.version"));
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             CalculatorStub calculator = new CalculatorStub(new BigDecimal("7.5"),
+                     Duration.parse(options.getOrDefault("stub-latency", "PT0.05S")),
+                     Duration.parse(options.getOrDefault("stub-latency-jitter", "PT0.02S")),
+                     Double.parseDouble(options.getOrDefault("stub-error-rate", "0")))) {
+            if (!compareThreading) {
+                try (ConfigurableApplicationContext context = startService(postgres, "postgres", calculator,
+                        applicationArgs)) {
+                    System.out.print(run(baseUri(context), rate, duration, warmUp, getRatio));
+                }
+                return;
+            }
+
+            // The limiter would shed load differently in each mode and hide the difference being measured
+            applicationArgs.add("--mortgage.concurrency-limit.enabled=false");
+            String platformReport;
+            try (ConfigurableApplicationContext context = startService(postgres, createDatabase(postgres, "platform"),
+                    calculator, applicationArgs)) {
+                System.out.println("Platform threads");
+                platformReport = run(baseUri(context), rate, duration, warmUp, getRatio);
+            }
+            String virtualReport;
+            try (ConfigurableApplicationContext context = startService(postgres, createDatabase(postgres, "virtual"),
+                    calculator, applicationArgs, "virtual-threads")) {
+                System.out.println("Virtual threads");
+                virtualReport = run(baseUri(context), rate, duration, warmUp, getRatio);
+            }
+            System.out.printf("%nPlatform threads%n%s%nVirtual threads%n%s", platformReport, virtualReport);
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(EmbeddedPostgres postgres, String database,
+                                                               CalculatorStub calculator, List<String> applicationArgs,
+                                                               String... additionalProfiles) {
+        return new SpringApplicationBuilder(MortgageApplicationServiceApplication.class)
+                .profiles(additionalProfiles)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", database),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "server.port=0",
+                        "mortgage.calculator.mode=remote",
+                        "mortgage.calculator.url=" + calculator.getUrl())
+                .run(applicationArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Each compared run gets its own database, so the second does not start with the first one's rows.
+     */
+    private static String createDatabase(EmbeddedPostgres postgres, String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        return name;
+    }
+
+    private static URI baseUri(ConfigurableApplicationContext context) {
+        return URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+    }
+
+    private static boolean isOption(String name) {
+        switch (name) {
+            case "rate":
+            case "duration":
+            case "warm-up":
+            case "get-ratio":
+            case "stub-latency":
+            case "stub-latency-jitter":
+            case "stub-error-rate":
+            case "target":
+            case "compare-threading":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the report of the measured phase.
+     */
+    private static String run(URI baseUri, double rate, Duration duration, Duration warmUp, double getRatio) {
+        LoadGenerator generator = new LoadGenerator(baseUri, getRatio);
+        System.out.printf("Warming up for %s at %.0f requests/s%n", warmUp, rate);
+        generator.run(rate, warmUp);
+        generator.takeHistograms();
+        generator.takeStatuses();
+
+        System.out.printf("Measuring for %s at %.0f requests/s, GET ratio %.2f%n", duration, rate, getRatio);
+        long start = System.nanoTime();
+        generator.run(rate, duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return report(generator.takeHistograms(), generator.takeStatuses(), seconds);
+    }
+
+    private static String report(Map<LoadGenerator.Operation, Histogram> histograms,
+                                 Map<LoadGenerator.Operation, Map<Integer, Long>> statuses, double seconds) {
+        StringBuilder report = new StringBuilder(String.format("%-5s %10s %10s %10s %10s %10s %10s  %s%n",
+                "op", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses"));
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            report.append(String.format("%-5s %10d %10.1f %10.2f %10.2f %10.2f %10.2f  %s%n",
+                    operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    statuses.get(operation)));
+        }
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -4,6 +4,9 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.dexsys.mortgageapplicationservice.config.StartupConfig;
 
 @OpenAPIDefinition(
         info = @Info(
@@ -13,10 +16,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
         )
 )
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class MortgageApplicationServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(MortgageApplicationServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(MortgageApplicationServiceApplication.class);
+        application.setApplicationStartup(StartupConfig.applicationStartup(args));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,35 @@
+package ru.dexsys.mortgageapplicationservice;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Applies the Liquibase changelog and exits. Run it as a one-shot job before rolling out instances that
+ * start with the fast-startup profile, which skips Liquibase:
+ * <pre>
+ * java -cp mortgage-application-service.jar -Dloader.main=ru.dexsys.mortgageapplicationservice.SchemaMigration \
+ *     org.springframework.boot.loader.PropertiesLauncher
+ * </pre>
+ * Only the datasource and Liquibase are configured; the migrate profile keeps this class out of the
+ * application context.
+ */
+@Profile("migrate")
+@Configuration(proxyBeanMethods = false)
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, DataSourceAutoConfiguration.class,
+        LiquibaseAutoConfiguration.class})
+public class SchemaMigration {
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(new SpringApplicationBuilder(SchemaMigration.class)
+                .profiles("migrate")
+                .web(WebApplicationType.NONE)
+                .run(args)));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+    private Duration age = Duration.ofDays(180);
+    private int batchSize = 1000;
+    private String cron = "0 30 3 * * *";
+    private Duration lockTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,11 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.bulk")
+public class BulkProperties {
+
+    private int batchSize = 500;
+}
@@ -0,0 +1,42 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.calculator")
+public class CalculatorProperties {
+
+    private Mode mode = Mode.REMOTE;
+    private String url = "https://mortgage-calculator-service.herokuapp.com/calculate";
+    private BigDecimal annualRate = new BigDecimal("7.5");
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private int maxConnections = 50;
+    private Duration cacheTtl = Duration.ofMinutes(1);
+    private long cacheMaximumSize = 10_000;
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    public enum Mode {
+        REMOTE, LOCAL, LOCAL_WITH_REMOTE_VERIFICATION
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        private int maxConcurrentCalls = 20;
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.client-cache")
+public class ClientCacheProperties {
+
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
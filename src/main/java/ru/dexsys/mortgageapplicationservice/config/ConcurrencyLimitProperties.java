@@ -0,0 +1,36 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Limit submit = new Limit(50, 10, 200, Duration.ofSeconds(5));
+    private Limit poll = new Limit(100, 5, 1000, Duration.ofMillis(200));
+
+    @Data
+    public static class Limit {
+
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        private Duration latencyThreshold;
+        private double backoffRatio = 0.9;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.decision")
+public class DecisionProperties {
+
+    private boolean async = false;
+    private int poolSize = 8;
+    private int queueCapacity = 1000;
+    private Duration retryDelay = Duration.ofMinutes(1);
+    private Duration retryInterval = Duration.ofSeconds(30);
+    private int retryBatchSize = 100;
+}
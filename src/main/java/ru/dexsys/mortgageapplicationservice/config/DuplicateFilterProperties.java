@@ -0,0 +1,12 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.duplicate-filter")
+public class DuplicateFilterProperties {
+
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+}
@@ -0,0 +1,12 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.export")
+public class ExportProperties {
+
+    private int fetchSize = 1000;
+    private int chunkSize = 5000;
+}
@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.group-commit")
+public class GroupCommitProperties {
+
+    private boolean enabled = false;
+    private int maxBatchSize = 256;
+    private Duration maxDelay = Duration.ofMillis(5);
+    private int queueCapacity = 10000;
+    private Duration commitTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.idempotency")
+public class IdempotencyProperties {
+
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofHours(24);
+    private Duration cleanupInterval = Duration.ofHours(1);
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    private Duration reservationTimeout = Duration.ofMinutes(1);
+}
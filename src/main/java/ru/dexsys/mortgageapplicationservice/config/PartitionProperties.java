@@ -0,0 +1,14 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.partitions")
+public class PartitionProperties {
+
+    private int monthsAhead = 3;
+    private Duration interval = Duration.ofHours(6);
+}
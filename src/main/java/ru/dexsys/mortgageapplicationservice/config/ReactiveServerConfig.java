@@ -0,0 +1,34 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+
+import java.util.stream.Collectors;
+
+/**
+ * Tomcat is on the classpath for the blocking stack, and Spring Boot prefers it over Reactor Netty
+ * for a reactive server too. The reactive profile declares the Netty factory itself so the event loop
+ * model it was written for is the one actually serving requests.
+ */
+@Profile("reactive")
+@Configuration
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<ReactorResourceFactory> resourceFactory,
+            ObjectProvider<NettyRouteProvider> routes,
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(factory::setResourceFactory);
+        routes.orderedStream().forEach(factory::addRouteProviders);
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().collect(Collectors.toList()));
+        return factory;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+
+import javax.servlet.Filter;
+
+/**
+ * Startup tuning used by the fast-startup profile. With spring.main.lazy-initialization=true everything off
+ * the request path (springdoc, admin endpoints, export) is created on first use, while the beans below stay
+ * eager: controllers and filters serve the first request without paying for context wiring, and scheduled
+ * beans would otherwise never get their tasks registered.
+ */
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    private static final int STARTUP_STEPS = 2048;
+
+    /**
+     * Buffers the startup steps for the actuator startup endpoint under the fast-startup profile or with
+     * mortgage.startup.record-steps=true, and records nothing otherwise. It has to be decided before the
+     * context exists, so the arguments, system properties and environment are read directly.
+     */
+    public static ApplicationStartup applicationStartup(String... args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        boolean recordSteps = environment.acceptsProfiles(Profiles.of("fast-startup"))
+                || environment.getProperty("mortgage.startup.record-steps", Boolean.class, false);
+        return recordSteps ? new BufferingApplicationStartup(STARTUP_STEPS) : ApplicationStartup.DEFAULT;
+    }
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || Filter.class.isAssignableFrom(beanType)
+                || !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>)
+                        method -> AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty());
+    }
+
+    /**
+     * Stops the application as soon as the context is refreshed. Runners, such as the warm-up, and ready
+     * listeners, such as the identity filter load, have not run yet, so nothing has touched the database or
+     * the calculator and the build can record a class-data-sharing archive without external dependencies.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "mortgage.startup.training-run", havingValue = "true")
+    public static ApplicationListener<ApplicationStartedEvent> trainingRunExit() {
+        return new TrainingRunExit();
+    }
+
+    private static class TrainingRunExit implements ApplicationListener<ApplicationStartedEvent>, Ordered {
+
+        @Override
+        public void onApplicationEvent(ApplicationStartedEvent event) {
+            log.info("Training run finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
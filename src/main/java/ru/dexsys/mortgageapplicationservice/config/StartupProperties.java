@@ -0,0 +1,21 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.startup")
+public class StartupProperties {
+
+    private boolean trainingRun = false;
+    // Read before the context starts, see StartupConfig.applicationStartup
+    private boolean recordSteps = false;
+    private WarmUp warmUp = new WarmUp();
+
+    @Data
+    public static class WarmUp {
+
+        private boolean enabled = false;
+        private int calculatorRequests = 3;
+    }
+}
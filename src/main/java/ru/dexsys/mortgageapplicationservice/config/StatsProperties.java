@@ -0,0 +1,19 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.stats")
+public class StatsProperties {
+
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+    private List<BigDecimal> creditAmountBuckets = List.of(
+            new BigDecimal("500000"), new BigDecimal("1000000"), new BigDecimal("2000000"),
+            new BigDecimal("3000000"), new BigDecimal("5000000"), new BigDecimal("10000000"),
+            new BigDecimal("20000000"), new BigDecimal("50000000"));
+}
@@ -0,0 +1,22 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "mortgage.threads")
+public class ThreadingProperties {
+
+    private boolean virtual = false;
+    private PinningMonitor pinningMonitor = new PinningMonitor();
+
+    @Data
+    public static class PinningMonitor {
+
+        private boolean enabled = true;
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration threshold = Duration.ofMillis(20);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "mortgage.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("mortgage.threads.virtual=true requires Java 21 or later, running on "
+                    + System.getProperty("java.version"));
+        }
+        log.info("Tomcat requests are handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,44 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.dexsys.mortgageapplicationservice.service.BulkApplicationService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Tag(name = "Client", description = "Client API")
+@Profile("!reactive")
+@RestController
+@RequestMapping("/mortgage")
+public class BulkApplicationController {
+
+    private final BulkApplicationService bulkApplicationService;
+
+    @Autowired
+    public BulkApplicationController(BulkApplicationService bulkApplicationService) {
+        this.bulkApplicationService = bulkApplicationService;
+    }
+
+    @Operation(
+            operationId = "createMortgageApplications",
+            summary = "Оформить пакет заявок на ипотеку",
+            description = "Принимает заявки массивом JSON или построчно (NDJSON) и возвращает построчный результат " +
+                    "по каждой заявке: index, code и id либо error"
+    )
+    @PostMapping(value = "/application/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void createMortgageApplications(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        bulkApplicationService.process(request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -6,35 +6,49 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import ru.dexsys.mortgageapplicationservice.entity.Client;
-import ru.dexsys.mortgageapplicationservice.model.CalculateResponse;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+import ru.dexsys.mortgageapplicationservice.service.ApplicationDecisionService;
+import ru.dexsys.mortgageapplicationservice.service.CalculatorException;
 import ru.dexsys.mortgageapplicationservice.service.ClientService;
+import ru.dexsys.mortgageapplicationservice.service.DuplicateClientException;
+import ru.dexsys.mortgageapplicationservice.service.IdempotencyKeyInProgressException;
+import ru.dexsys.mortgageapplicationservice.service.IdempotencyKeyMismatchException;
+import ru.dexsys.mortgageapplicationservice.service.IdempotencyService;
 
-import javax.validation.Valid;
-import java.math.BigDecimal;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 @Tag(name = "Client", description = "Client API")
+@Profile("!reactive")
 @RestController
 @RequestMapping("/mortgage")
 public class ClientController {
 
     private final ClientService clientService;
-    private final RestTemplate restTemplate;
+    private final ApplicationDecisionService decisionService;
+    private final IdempotencyService idempotencyService;
+    private final Validator validator;
+    private final ApplicationMetrics metrics;
 
     @Autowired
-    public ClientController(ClientService clientService, RestTemplateBuilder builder) {
+    public ClientController(ClientService clientService, ApplicationDecisionService decisionService,
+                            IdempotencyService idempotencyService, Validator validator, ApplicationMetrics metrics) {
         this.clientService = clientService;
-        this.restTemplate = builder.build();
+        this.decisionService = decisionService;
+        this.idempotencyService = idempotencyService;
+        this.validator = validator;
+        this.metrics = metrics;
     }
 
     @Operation(
@@ -86,7 +100,8 @@ public class ClientController {
                     ),
                     @ApiResponse(
                             responseCode = "409",
-                            description = "Duplicate application",
+                            description = "Duplicate application, or a request with the same Idempotency-Key " +
+                                    "is still in progress",
                             content = {
                                     @Content(
                                             mediaType = "application/json",
@@ -99,6 +114,22 @@ public class ClientController {
                                             }
                                     )
                             }
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Idempotency-Key reused with a different request",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            examples = {
+                                                    @ExampleObject(
+                                                            value = "{\n" +
+                                                                    "  \"error\": \"Idempotency-Key was already used with a different request\"\n" +
+                                                                    "}"
+                                                    )
+                                            }
+                                    )
+                            }
                     )
             }
     )
@@ -125,38 +156,45 @@ public class ClientController {
             }
     )
     @PostMapping("/application")
-    public ResponseEntity<?> createMortgageApplication(@Valid @RequestBody Client client,
-                                                       BindingResult bindingResult) {
+    public ResponseEntity<?> createMortgageApplication(
+            @RequestBody Client client,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createApplication(client);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Collections.singletonMap("error", "invalid Idempotency-Key"));
+        }
+        return idempotencyService.execute(idempotencyKey, client, () -> createApplication(client));
+    }
 
-        if (bindingResult.hasFieldErrors() && bindingResult.getFieldError() != null) {
+    private ResponseEntity<?> createApplication(Client client) {
+        Set<ConstraintViolation<Client>> violations = metrics.timeCreateStage(ApplicationMetrics.Stage.VALIDATION,
+                () -> validator.validate(client));
+        if (!violations.isEmpty()) {
+            metrics.recordRejection(ApplicationMetrics.Rejection.INVALID);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Collections.singletonMap("error", bindingResult.getFieldError().getDefaultMessage()));
+                    .body(Collections.singletonMap("error", violations.iterator().next().getMessage()));
         }
 
-        Optional<Client> duplicateClient = clientService.findClientDuplicate(client.getFirstName(),
-                client.getSecondName(), client.getLastName(), client.getPassport());
-        if (duplicateClient.isPresent()) {
+        boolean duplicate = metrics.timeCreateStage(ApplicationMetrics.Stage.DUPLICATE_CHECK,
+                () -> clientService.hasClientDuplicate(client));
+        if (duplicate) {
+            metrics.recordRejection(ApplicationMetrics.Rejection.DUPLICATE);
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Collections.singletonMap("error", "Client duplicate"));
         }
 
-        ResponseEntity<CalculateResponse> calculateResponseEntity =
-                restTemplate.postForEntity("https://mortgage-calculator-service.herokuapp.com/calculate",
-                        new CalculateResponse(client.getCreditAmount(), client.getDurationInMonths()),
-                        CalculateResponse.class);
-
-        if (calculateResponseEntity.getStatusCode().equals(HttpStatus.OK) && calculateResponseEntity.getBody() != null) {
-            BigDecimal monthlyPayment = calculateResponseEntity.getBody().getMonthlyPayment();
-            if (client.getSalary().compareTo(monthlyPayment.multiply(BigDecimal.valueOf(2))) > 0) {
-                client.setStatus(Client.MortgageApplicationStatus.APPROVED);
-                client.setMonthlyPayment(monthlyPayment);
-            } else {
-                client.setStatus(Client.MortgageApplicationStatus.DENIED);
-            }
+        if (decisionService.isAsync()) {
+            client.setStatus(Client.MortgageApplicationStatus.PROCESSING);
+            metrics.timeCreateStage(ApplicationMetrics.Stage.SAVE, () -> clientService.saveClient(client));
+            decisionService.submit(client);
+        } else {
+            metrics.timeCreateStage(ApplicationMetrics.Stage.CALCULATOR, () -> decisionService.decide(client));
+            metrics.timeCreateStage(ApplicationMetrics.Stage.SAVE, () -> clientService.saveClient(client));
         }
 
-        clientService.saveClient(client);
-
         client.setStatus(Client.MortgageApplicationStatus.PROCESSING);
         client.setMonthlyPayment(null);
 
@@ -214,6 +252,13 @@ public class ClientController {
                                     )
                             }
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Not Modified since the ETag in If-None-Match",
+                            content = {
+                                    @Content()
+                            }
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Not Found",
@@ -230,26 +275,55 @@ public class ClientController {
                     .body(Collections.singletonMap("error", "invalid id"));
         }
 
-        Optional<Client> savedClient = clientService.findClientById(id);
+        Optional<Client> savedClient = metrics.timeGetStage(ApplicationMetrics.Stage.LOOKUP,
+                () -> clientService.findClientById(id));
         if (savedClient.isPresent()) {
-            return ResponseEntity.ok(savedClient.get());
+            return ResponseEntity.ok()
+                    .eTag(eTagOf(savedClient.get()))
+                    .body(savedClient.get());
         }
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
+    static String eTagOf(Client client) {
+        if (client.getMonthlyPayment() == null) {
+            return String.valueOf(client.getStatus());
+        }
+        return client.getStatus() + "-" + client.getMonthlyPayment().toPlainString();
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<?> handleException(HttpMessageNotReadableException e) {
-        String localDateException = "java.time.LocalDate";
-        String enumGenderException = "ru.dexsys.mortgageapplicationservice.entity.Client$Gender";
-        if (e.getMessage().toLowerCase().contains(localDateException.toLowerCase())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Collections.singletonMap("error", "date format yyyy-mm-dd, example 1999-01-21"));
-        } else if (e.getMessage().toLowerCase().contains(enumGenderException.toLowerCase())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Collections.singletonMap("error", "gender should be MALE or FEMALE"));
-        }
+        metrics.recordRejection(ApplicationMetrics.Rejection.INVALID);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Collections.singletonMap("error", RequestErrorMessages.fromMessage(e.getMessage())));
+    }
+
+    @ExceptionHandler(DuplicateClientException.class)
+    public ResponseEntity<?> handleException(DuplicateClientException e) {
+        metrics.recordRejection(ApplicationMetrics.Rejection.DUPLICATE);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Collections.singletonMap("error", "Client duplicate"));
+    }
+
+    @ExceptionHandler(CalculatorException.class)
+    public ResponseEntity<?> handleException(CalculatorException e) {
+        metrics.recordRejection(ApplicationMetrics.Rejection.CALCULATOR_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Collections.singletonMap("error", "Calculator service unavailable"));
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<?> handleException(IdempotencyKeyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Collections.singletonMap("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<?> handleException(IdempotencyKeyMismatchException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .body(Collections.singletonMap("error", e.getMessage()));
     }
 }
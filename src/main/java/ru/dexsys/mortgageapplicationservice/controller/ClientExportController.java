@@ -0,0 +1,70 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.dexsys.mortgageapplicationservice.service.ClientExportService;
+import ru.dexsys.mortgageapplicationservice.service.ExportFormat;
+import ru.dexsys.mortgageapplicationservice.service.UnsupportedExportFormatException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+@Tag(name = "Client", description = "Client API")
+@Profile("!reactive")
+@RestController
+@RequestMapping("/mortgage")
+public class ClientExportController {
+
+    private final ClientExportService exportService;
+
+    @Autowired
+    public ClientExportController(ClientExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @Operation(
+            operationId = "exportMortgageApplications",
+            summary = "Выгрузить все заявки на ипотеку",
+            description = "Потоково выгружает все заявки в формате csv или ndjson, при gzip=true ответ сжимается"
+    )
+    @GetMapping("/applications/export")
+    public void exportMortgageApplications(@RequestParam(defaultValue = "csv") String format,
+                                           @RequestParam(defaultValue = "false") boolean gzip,
+                                           HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromValue(format).orElseThrow(UnsupportedExportFormatException::new);
+
+        String fileName = "applications." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        if (gzip) {
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+            exportService.export(exportFormat, out);
+            out.finish();
+        } else {
+            OutputStream out = response.getOutputStream();
+            exportService.export(exportFormat, out);
+        }
+    }
+
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<?> handleException(UnsupportedExportFormatException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Collections.singletonMap("error", e.getMessage()));
+    }
+}
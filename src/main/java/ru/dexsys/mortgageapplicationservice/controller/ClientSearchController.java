@@ -0,0 +1,81 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCriteria;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCursor;
+import ru.dexsys.mortgageapplicationservice.service.ClientService;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Collections;
+
+@Tag(name = "Client", description = "Client API")
+@Profile("!reactive")
+@RestController
+@RequestMapping("/mortgage")
+public class ClientSearchController {
+
+    static final int MAX_LIMIT = 500;
+
+    private final ClientService clientService;
+
+    @Autowired
+    public ClientSearchController(ClientService clientService) {
+        this.clientService = clientService;
+    }
+
+    @Operation(
+            operationId = "searchMortgageApplications",
+            summary = "Найти заявки на ипотеку",
+            description = "Возвращает страницу заявок с фильтрами по статусу, сумме кредита и дате рождения. " +
+                    "Заявки упорядочены по сумме кредита или дате рождения, если задан фильтр по ним, затем по id. " +
+                    "Для следующей страницы передайте значение next в параметре after с теми же фильтрами"
+    )
+    @GetMapping("/applications")
+    public ResponseEntity<Object> searchMortgageApplications(
+            @RequestParam(required = false) Client.MortgageApplicationStatus status,
+            @RequestParam(required = false) BigDecimal creditAmountFrom,
+            @RequestParam(required = false) BigDecimal creditAmountTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDateTo,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Collections.singletonMap("error", "limit should be between 1 and " + MAX_LIMIT));
+        }
+
+        ClientSearchCriteria criteria = new ClientSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setCreditAmountFrom(creditAmountFrom);
+        criteria.setCreditAmountTo(creditAmountTo);
+        criteria.setBirthDateFrom(birthDateFrom);
+        criteria.setBirthDateTo(birthDateTo);
+
+        ClientSearchCursor cursor;
+        try {
+            cursor = after == null ? null : ClientSearchCursor.decode(criteria.sortKey(), after);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Collections.singletonMap("error", "invalid after"));
+        }
+
+        return ResponseEntity.ok(clientService.searchClients(criteria, cursor, limit));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Collections.singletonMap("error", "invalid " + e.getName()));
+    }
+}
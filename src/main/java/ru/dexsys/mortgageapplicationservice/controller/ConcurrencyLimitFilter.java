@@ -0,0 +1,112 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.dexsys.mortgageapplicationservice.config.ConcurrencyLimitProperties;
+import ru.dexsys.mortgageapplicationservice.service.AimdLimiter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Admits requests to the application endpoints only while they are under their adaptive concurrency
+ * limit and sheds the rest with an immediate 503. Polling and submission are limited separately, so a
+ * slow calculator throttles new applications without blocking status checks. Opt-in through
+ * mortgage.concurrency-limit.enabled, since the right thresholds depend on the calculator in use.
+ */
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mortgage.concurrency-limit.enabled", havingValue = "true")
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String APPLICATION_PATH = "/mortgage/application";
+
+    private final AimdLimiter submitLimiter;
+    private final AimdLimiter pollLimiter;
+    private final Counter submitRejections;
+    private final Counter pollRejections;
+    private final String retryAfterSeconds;
+    private final byte[] overloadedBody;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) throws IOException {
+        this.submitLimiter = limiter(properties.getSubmit());
+        this.pollLimiter = limiter(properties.getPoll());
+        this.submitRejections = register("submit", submitLimiter, meterRegistry);
+        this.pollRejections = register("poll", pollLimiter, meterRegistry);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.overloadedBody = objectMapper.writeValueAsBytes(Collections.singletonMap("error", "Service overloaded"));
+    }
+
+    private static AimdLimiter limiter(ConcurrencyLimitProperties.Limit limit) {
+        return new AimdLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                limit.getLatencyThreshold().toNanos(), limit.getBackoffRatio());
+    }
+
+    private static Counter register(String endpoint, AimdLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("mortgage.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("mortgage.concurrency.in-flight", limiter, AimdLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return Counter.builder("mortgage.concurrency.rejections")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bulk uploads and exports are long by design and would only drag the limits down.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return !path.startsWith(APPLICATION_PATH + "/");
+        }
+        return !(HttpMethod.POST.matches(request.getMethod()) && path.equals(APPLICATION_PATH));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean poll = HttpMethod.GET.matches(request.getMethod());
+        AimdLimiter limiter = poll ? pollLimiter : submitLimiter;
+
+        if (!limiter.tryAcquire()) {
+            (poll ? pollRejections : submitRejections).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(overloadedBody);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            chain.doFilter(request, response);
+            overloaded = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limiter.release(System.nanoTime() - startedAt, overloaded);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.dexsys.mortgageapplicationservice.service.PreQualificationService;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+@Tag(name = "Client", description = "Client API")
+@RestController
+@RequestMapping("/mortgage")
+public class PreQualificationController {
+
+    private static final BigDecimal MAX_SALARY = BigDecimal.valueOf(1_000_000_000L);
+
+    private final PreQualificationService preQualificationService;
+
+    @Autowired
+    public PreQualificationController(PreQualificationService preQualificationService) {
+        this.preQualificationService = preQualificationService;
+    }
+
+    @Operation(
+            operationId = "preQualify",
+            summary = "Предварительный расчет доступной суммы кредита",
+            description = "Для каждого срока от 1 до 1200 месяцев возвращает максимальную сумму кредита, " +
+                    "которая будет одобрена при указанной зарплате, и ежемесячный платеж по ней"
+    )
+    @GetMapping("/prequalification")
+    public ResponseEntity<Object> preQualify(@RequestParam BigDecimal salary) {
+        if (salary.signum() < 0 || salary.compareTo(MAX_SALARY) > 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Collections.singletonMap("error", "salary should be between 0 and 1000000000"));
+        }
+        return ResponseEntity.ok(preQualificationService.preQualify(salary));
+    }
+}
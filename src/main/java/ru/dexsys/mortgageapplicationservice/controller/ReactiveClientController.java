@@ -0,0 +1,128 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+import ru.dexsys.mortgageapplicationservice.repository.ReactiveClientRepository;
+import ru.dexsys.mortgageapplicationservice.service.CalculatorException;
+import ru.dexsys.mortgageapplicationservice.service.ClientCache;
+import ru.dexsys.mortgageapplicationservice.service.DuplicateClientException;
+import ru.dexsys.mortgageapplicationservice.service.ReactiveDecisionService;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of {@link ClientController} for the reactive profile, with the same contract and error responses.
+ * It does not have the calculator bulkhead and circuit breaker, the Idempotency-Key handling, the concurrency
+ * limiter or the application statistics of the blocking stack.
+ */
+@Tag(name = "Client", description = "Client API")
+@Profile("reactive")
+@RestController
+@RequestMapping("/mortgage")
+public class ReactiveClientController {
+
+    private final ReactiveClientRepository clientRepository;
+    private final ReactiveDecisionService decisionService;
+    private final ClientCache clientCache;
+    private final Validator validator;
+    private final ApplicationMetrics metrics;
+
+    @Autowired
+    public ReactiveClientController(ReactiveClientRepository clientRepository, ReactiveDecisionService decisionService,
+                                    ClientCache clientCache, Validator validator, ApplicationMetrics metrics) {
+        this.clientRepository = clientRepository;
+        this.decisionService = decisionService;
+        this.clientCache = clientCache;
+        this.validator = validator;
+        this.metrics = metrics;
+    }
+
+    @PostMapping("/application")
+    public Mono<ResponseEntity<Object>> createMortgageApplication(@RequestBody Client client,
+                                                                  ServerHttpRequest request) {
+        Set<ConstraintViolation<Client>> violations = validator.validate(client);
+        if (!violations.isEmpty()) {
+            metrics.recordRejection(ApplicationMetrics.Rejection.INVALID);
+            return Mono.just(error(HttpStatus.BAD_REQUEST, violations.iterator().next().getMessage()));
+        }
+
+        return clientRepository.existsByIdentityHash(ClientIdentity.hash(client))
+                .flatMap(duplicate -> {
+                    if (duplicate) {
+                        return Mono.<Client>error(new DuplicateClientException());
+                    }
+                    return decisionService.decide(client)
+                            .flatMap(clientRepository::insert);
+                })
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> DuplicateClientException.isIdentityConflict(e) ? new DuplicateClientException(e) : e)
+                .map(savedClient -> {
+                    clientCache.invalidate(client.getId());
+                    client.setStatus(Client.MortgageApplicationStatus.PROCESSING);
+                    client.setMonthlyPayment(null);
+
+                    URI location = UriComponentsBuilder.fromHttpRequest(request).path("/{id}")
+                            .buildAndExpand(Collections.singletonMap("id", client.getId())).toUri();
+                    return ResponseEntity.created(location).body((Object) client);
+                });
+    }
+
+    @GetMapping("/application/{id}")
+    public Mono<ResponseEntity<Object>> getClientById(@PathVariable("id") String id) {
+        if (id.length() != 36) {
+            return Mono.just(error(HttpStatus.BAD_REQUEST, "invalid id"));
+        }
+
+        UUID clientId = UUID.fromString(id);
+        Optional<Client> cachedClient = clientCache.get(clientId);
+        Mono<Client> savedClient = cachedClient.map(Mono::just)
+                .orElseGet(() -> clientRepository.findById(clientId).doOnNext(clientCache::putIfDecided));
+
+        return savedClient
+                .map(client -> ResponseEntity.ok()
+                        .eTag(ClientController.eTagOf(client))
+                        .body((Object) client))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleException(ServerWebInputException e) {
+        metrics.recordRejection(ApplicationMetrics.Rejection.INVALID);
+        String message = e.getCause() != null ? e.getCause().getMessage() : e.getReason();
+        return error(HttpStatus.BAD_REQUEST, RequestErrorMessages.fromMessage(String.valueOf(message)));
+    }
+
+    @ExceptionHandler(DuplicateClientException.class)
+    public ResponseEntity<Object> handleException(DuplicateClientException e) {
+        metrics.recordRejection(ApplicationMetrics.Rejection.DUPLICATE);
+        return error(HttpStatus.CONFLICT, "Client duplicate");
+    }
+
+    @ExceptionHandler(CalculatorException.class)
+    public ResponseEntity<Object> handleException(CalculatorException e) {
+        metrics.recordRejection(ApplicationMetrics.Rejection.CALCULATOR_UNAVAILABLE);
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "Calculator service unavailable");
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Collections.singletonMap("error", message));
+    }
+}
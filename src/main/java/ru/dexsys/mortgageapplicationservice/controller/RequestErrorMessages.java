@@ -0,0 +1,19 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+public final class RequestErrorMessages {
+
+    private static final String LOCAL_DATE_EXCEPTION = "java.time.LocalDate";
+    private static final String ENUM_GENDER_EXCEPTION = "ru.dexsys.mortgageapplicationservice.entity.Client$Gender";
+
+    private RequestErrorMessages() {
+    }
+
+    public static String fromMessage(String message) {
+        if (message.toLowerCase().contains(LOCAL_DATE_EXCEPTION.toLowerCase())) {
+            return "date format yyyy-mm-dd, example 1999-01-21";
+        } else if (message.toLowerCase().contains(ENUM_GENDER_EXCEPTION.toLowerCase())) {
+            return "gender should be MALE or FEMALE";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.dexsys.mortgageapplicationservice.model.ApplicationStats;
+import ru.dexsys.mortgageapplicationservice.service.ApplicationStatistics;
+
+@Tag(name = "Client", description = "Client API")
+@Profile("!reactive")
+@RestController
+@RequestMapping("/mortgage")
+public class StatsController {
+
+    private final ApplicationStatistics statistics;
+
+    @Autowired
+    public StatsController(ApplicationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Operation(
+            operationId = "getApplicationStats",
+            summary = "Статистика по заявкам",
+            description = "Возвращает число заявок по статусам и полу, долю одобренных, общую запрошенную сумму " +
+                    "и распределение заявок по сумме кредита"
+    )
+    @GetMapping("/stats")
+    public ApplicationStats getApplicationStats() {
+        return statistics.getStats();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.dexsys.mortgageapplicationservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import javax.persistence.*;
@@ -10,6 +12,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -17,9 +20,11 @@ import java.util.UUID;
 @Table(name = "clients")
 public class Client {
 
+    // Always assigned here: the id carries the creation time, which picks the partition the row goes to
     @Id
     @Column(name = "id")
-    private UUID id = UUID.randomUUID();
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UUID id = ClientIds.newId();
 
     @Column(name = "first_name")
     @NotBlank(message = "firstName cannot be empty")
@@ -70,6 +75,25 @@ public class Client {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private BigDecimal monthlyPayment;
 
+    @Column(name = "identity_hash")
+    @JsonIgnore
+    private String identityHash;
+
+    @Column(name = "created_at")
+    @JsonIgnore
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        computeIdentityHash();
+        createdAt = ClientIds.createdAt(id);
+    }
+
+    @PreUpdate
+    void computeIdentityHash() {
+        identityHash = ClientIdentity.hash(this);
+    }
+
     public enum Gender {
         MALE, FEMALE
     }
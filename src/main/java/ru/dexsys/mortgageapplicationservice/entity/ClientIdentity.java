@@ -0,0 +1,52 @@
+package ru.dexsys.mortgageapplicationservice.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * SHA-256 of the trimmed, lower-cased name and passport fields. Existing rows are backfilled with this
+ * same code by IdentityHashBackfill, so duplicates are matched ignoring case and surrounding whitespace.
+ */
+public final class ClientIdentity {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ClientIdentity() {
+    }
+
+    public static String hash(Client client) {
+        return hash(client.getFirstName(), client.getSecondName(), client.getLastName(), client.getPassport());
+    }
+
+    public static String hash(String firstName, String secondName, String lastName, String passport) {
+        String identity = normalize(firstName) + SEPARATOR + normalize(secondName) + SEPARATOR
+                + normalize(lastName) + SEPARATOR + normalize(passport);
+        return sha256Hex(identity);
+    }
+
+    public static String sha256Hex(String value) {
+        byte[] digest = sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.dexsys.mortgageapplicationservice.entity;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Client ids are time-ordered UUIDv7, so the creation time, which is the partition key of clients,
+ * can be recovered from the id alone. Ids issued before that are random v4 and all belong to the legacy
+ * partition at {@link #LEGACY_CREATED_AT}. Times are UTC.
+ */
+public final class ClientIds {
+
+    public static final LocalDateTime LEGACY_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Random RANDOM = new SecureRandom();
+
+    private ClientIds() {
+    }
+
+    public static UUID newId() {
+        return newId(System.currentTimeMillis());
+    }
+
+    static UUID newId(long epochMillis) {
+        long mostSignificantBits = (epochMillis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static LocalDateTime createdAt(UUID id) {
+        if (id.version() != 7) {
+            return LEGACY_CREATED_AT;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.dexsys.mortgageapplicationservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the application flow. Every meter is registered up front, so recording on the request path
+ * is a map lookup and an update without building tags or samples. Stages are timed around the call that
+ * runs them, so a stage that throws is recorded too.
+ */
+@Component
+public class ApplicationMetrics {
+
+    public enum Stage {
+        VALIDATION, DUPLICATE_CHECK, CALCULATOR, SAVE, LOOKUP
+    }
+
+    public enum Rejection {
+        INVALID, DUPLICATE, CALCULATOR_UNAVAILABLE
+    }
+
+    private final Map<Stage, Timer> createStageTimers = new EnumMap<>(Stage.class);
+    private final Map<Stage, Timer> getStageTimers = new EnumMap<>(Stage.class);
+    private final Map<Client.MortgageApplicationStatus, Counter> outcomeCounters =
+            new EnumMap<>(Client.MortgageApplicationStatus.class);
+    private final Map<Rejection, Counter> rejectionCounters = new EnumMap<>(Rejection.class);
+
+    @Autowired
+    public ApplicationMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : new Stage[]{Stage.VALIDATION, Stage.DUPLICATE_CHECK, Stage.CALCULATOR, Stage.SAVE}) {
+            createStageTimers.put(stage, stageTimer(meterRegistry, "createMortgageApplication", stage));
+        }
+        getStageTimers.put(Stage.LOOKUP, stageTimer(meterRegistry, "getClientById", Stage.LOOKUP));
+
+        for (Client.MortgageApplicationStatus status : Client.MortgageApplicationStatus.values()) {
+            outcomeCounters.put(status, Counter.builder("mortgage.application.outcomes")
+                    .description("Decided applications by status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (Rejection rejection : Rejection.values()) {
+            rejectionCounters.put(rejection, Counter.builder("mortgage.application.rejections")
+                    .description("Applications rejected before a decision")
+                    .tag("reason", rejection.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T timeCreateStage(Stage stage, Supplier<T> body) {
+        return createStageTimers.get(stage).record(body);
+    }
+
+    public void timeCreateStage(Stage stage, Runnable body) {
+        createStageTimers.get(stage).record(body);
+    }
+
+    public <T> T timeGetStage(Stage stage, Supplier<T> body) {
+        return getStageTimers.get(stage).record(body);
+    }
+
+    public void recordOutcome(Client.MortgageApplicationStatus status) {
+        outcomeCounters.get(status).increment();
+    }
+
+    public void recordRejection(Rejection rejection) {
+        rejectionCounters.get(rejection).increment();
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String operation, Stage stage) {
+        return Timer.builder("mortgage.application.stage")
+                .description("Time spent in each stage of the application flow")
+                .tag("operation", operation)
+                .tag("stage", stage.name().toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
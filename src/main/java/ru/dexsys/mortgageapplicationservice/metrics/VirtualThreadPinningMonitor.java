@@ -0,0 +1,110 @@
+package ru.dexsys.mortgageapplicationservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.config.ThreadingProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records JFR jdk.VirtualThreadPinned events in short rolling recordings, logging where a virtual thread
+ * blocked its carrier (typically inside a synchronized section) and counting the occurrences.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"mortgage.threads.virtual", "mortgage.threads.pinning-monitor.enabled"},
+        havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final ThreadingProperties.PinningMonitor properties;
+    private final Counter pinnedCounter;
+    private final ScheduledExecutorService scheduler;
+    // Swapped on the monitor thread and closed on the shutdown thread
+    private volatile Recording recording;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(ThreadingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getPinningMonitor();
+        this.pinnedCounter = Counter.builder("mortgage.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the monitor threshold")
+                .register(meterRegistry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("pinning-monitor-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = startRecording();
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::collect, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        recording.close();
+    }
+
+    private Recording startRecording() {
+        Recording newRecording = new Recording();
+        newRecording.setName("virtual-thread-pinning");
+        newRecording.enable(PINNED_EVENT).withThreshold(properties.getThreshold()).withStackTrace();
+        newRecording.start();
+        return newRecording;
+    }
+
+    private void collect() {
+        Recording finished = recording;
+        recording = startRecording();
+        try {
+            Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+            try {
+                finished.stop();
+                finished.dump(file);
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    pinnedCounter.increment();
+                    log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), stackOf(event));
+                }
+            } finally {
+                finished.close();
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not collect virtual thread pinning events: {}", e.getMessage());
+        }
+    }
+
+    private static String stackOf(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.dexsys.mortgageapplicationservice.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills clients.identity_hash for existing rows with {@link ClientIdentity#hash}, so stored hashes follow
+ * exactly the rules new applications are hashed with. SQL trim and lower differ from Java's: btrim only
+ * strips spaces, and lower depends on the database locale.
+ */
+public class IdentityHashBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private int updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, first_name, second_name, last_name, passport FROM clients");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE clients SET identity_hash = ? WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    update.setString(1, ClientIdentity.hash(rs.getString("first_name"), rs.getString("second_name"),
+                            rs.getString("last_name"), rs.getString("passport")));
+                    update.setObject(2, rs.getObject("id"));
+                    update.addBatch();
+                    if (++updated % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+            }
+            update.executeBatch();
+        } catch (SQLException e) {
+            throw new CustomChangeException("Identity hash backfill failed", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Identity hash computed for " + updated + " clients";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
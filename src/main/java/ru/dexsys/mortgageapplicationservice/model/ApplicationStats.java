@@ -0,0 +1,42 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationStats {
+
+    private long applications;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byGender;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal approvalRate;
+
+    private BigDecimal totalCreditAmount;
+    private List<Bucket> creditAmountHistogram;
+    private Instant reconciledAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+
+        /**
+         * Inclusive upper bound of the credit amount; null for the last, unbounded bucket.
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private BigDecimal upTo;
+
+        private long applications;
+    }
+}
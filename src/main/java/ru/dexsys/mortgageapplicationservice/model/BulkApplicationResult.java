@@ -0,0 +1,37 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkApplicationResult {
+
+    private int index;
+    private int code;
+    private UUID id;
+    private Client.MortgageApplicationStatus status;
+    private String error;
+
+    public static BulkApplicationResult created(int index, UUID id) {
+        BulkApplicationResult result = new BulkApplicationResult();
+        result.setIndex(index);
+        result.setCode(201);
+        result.setId(id);
+        result.setStatus(Client.MortgageApplicationStatus.PROCESSING);
+        return result;
+    }
+
+    public static BulkApplicationResult failed(int index, int code, String error) {
+        BulkApplicationResult result = new BulkApplicationResult();
+        result.setIndex(index);
+        result.setCode(code);
+        result.setError(error);
+        return result;
+    }
+}
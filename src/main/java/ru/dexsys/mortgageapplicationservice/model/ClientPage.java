@@ -0,0 +1,19 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPage {
+
+    private List<ClientSummary> items;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
+}
@@ -0,0 +1,35 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import lombok.Data;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class ClientSearchCriteria {
+
+    private Client.MortgageApplicationStatus status;
+    private BigDecimal creditAmountFrom;
+    private BigDecimal creditAmountTo;
+    private LocalDate birthDateFrom;
+    private LocalDate birthDateTo;
+
+    /**
+     * A range filter is served by the index on its column, which only returns rows in that column's order,
+     * so pages are sorted by the range column and then id. Credit amount wins when both ranges are set.
+     */
+    public SortKey sortKey() {
+        if (creditAmountFrom != null || creditAmountTo != null) {
+            return SortKey.CREDIT_AMOUNT;
+        }
+        if (birthDateFrom != null || birthDateTo != null) {
+            return SortKey.BIRTH_DATE;
+        }
+        return SortKey.ID;
+    }
+
+    public enum SortKey {
+        ID, CREDIT_AMOUNT, BIRTH_DATE
+    }
+}
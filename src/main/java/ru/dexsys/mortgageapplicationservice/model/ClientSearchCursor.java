@@ -0,0 +1,63 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a page: the value of the sort column and the id that breaks ties on it.
+ * Clients see it as an opaque token.
+ */
+@Data
+public class ClientSearchCursor {
+
+    private static final char SEPARATOR = '~';
+
+    private final Object value;
+    private final UUID id;
+
+    public static ClientSearchCursor after(ClientSearchCriteria.SortKey sortKey, ClientSummary client) {
+        switch (sortKey) {
+            case CREDIT_AMOUNT:
+                return new ClientSearchCursor(client.getCreditAmount(), client.getId());
+            case BIRTH_DATE:
+                return new ClientSearchCursor(client.getBirthDate(), client.getId());
+            default:
+                return new ClientSearchCursor(null, client.getId());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not issued for this sort key
+     */
+    public static ClientSearchCursor decode(ClientSearchCriteria.SortKey sortKey, String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        String value = decoded.substring(0, separator);
+        UUID id = UUID.fromString(decoded.substring(separator + 1));
+        switch (sortKey) {
+            case CREDIT_AMOUNT:
+                return new ClientSearchCursor(new BigDecimal(value), id);
+            case BIRTH_DATE:
+                return new ClientSearchCursor(LocalDate.parse(value), id);
+            default:
+                if (!value.isEmpty()) {
+                    throw new IllegalArgumentException("cursor was issued for another sort order");
+                }
+                return new ClientSearchCursor(null, id);
+        }
+    }
+
+    public String encode() {
+        String raw = (value instanceof BigDecimal ? ((BigDecimal) value).toPlainString()
+                : value == null ? "" : value.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
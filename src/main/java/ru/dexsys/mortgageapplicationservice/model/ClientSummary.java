@@ -0,0 +1,29 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientSummary {
+
+    private UUID id;
+    private String firstName;
+    private String secondName;
+    private String lastName;
+    private LocalDate birthDate;
+    private Client.MortgageApplicationStatus status;
+    private BigDecimal creditAmount;
+    private Integer durationInMonths;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal monthlyPayment;
+}
@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreQualificationOption {
+
+    private int durationInMonths;
+    private BigDecimal creditAmount;
+    private BigDecimal monthlyPayment;
+}
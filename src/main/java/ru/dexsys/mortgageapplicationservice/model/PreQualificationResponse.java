@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreQualificationResponse {
+
+    private BigDecimal salary;
+    private List<PreQualificationOption> options;
+}
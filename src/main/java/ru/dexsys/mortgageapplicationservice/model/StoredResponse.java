@@ -0,0 +1,17 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredResponse {
+
+    private String fingerprint;
+    // Null while the request that reserved the key is still running
+    private Integer statusCode;
+    private String location;
+    private String body;
+}
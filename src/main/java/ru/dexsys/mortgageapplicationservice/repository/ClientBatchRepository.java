@@ -0,0 +1,14 @@
+package ru.dexsys.mortgageapplicationservice.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.util.List;
+
+public interface ClientBatchRepository {
+
+    @Transactional
+    void persistAndFlush(Client client);
+
+    void persistAll(List<Client> clients);
+}
@@ -0,0 +1,44 @@
+package ru.dexsys.mortgageapplicationservice.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+public class ClientBatchRepositoryImpl implements ClientBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    /**
+     * Inserts a new client right away. Unlike {@code saveAndFlush} it does not look the id up first,
+     * which on the partitioned table would probe every partition.
+     */
+    @Override
+    public void persistAndFlush(Client client) {
+        entityManager.persist(client);
+        entityManager.flush();
+    }
+
+    /**
+     * Persists new clients without the SELECT that {@code save} issues for entities with a pre-assigned id,
+     * flushing every JDBC batch so the persistence context stays small.
+     */
+    @Override
+    public void persistAll(List<Client> clients) {
+        for (int i = 0; i < clients.size(); i++) {
+            entityManager.persist(clients.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -1,12 +1,61 @@
 package ru.dexsys.mortgageapplicationservice.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.dexsys.mortgageapplicationservice.entity.Client;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ClientRepository extends JpaRepository<Client, UUID> {
+public interface ClientRepository extends JpaRepository<Client, UUID>, ClientBatchRepository,
+        ClientSearchRepository {
 
-    Optional<Client> findByFirstNameAndSecondNameAndLastNameAndPassport(String firstName, String secondName, String lastName, String passport);
+    @Query(value = "select exists(select 1 from client_identities where identity_hash = :identityHash)",
+            nativeQuery = true)
+    boolean existsByIdentityHash(@Param("identityHash") String identityHash);
+
+    @Query(value = "select identity_hash from client_identities where identity_hash in (:identityHashes)",
+            nativeQuery = true)
+    List<String> findExistingIdentityHashes(@Param("identityHashes") Collection<String> identityHashes);
+
+    @Query(value = "select identity_hash from client_identities", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<String> streamAllIdentityHashes();
+
+    /**
+     * Looks the client up in the single partition its creation time falls into.
+     */
+    Optional<Client> findByIdAndCreatedAt(UUID id, LocalDateTime createdAt);
+
+    @Query(value = "select * from clients_archive where id = :id", nativeQuery = true)
+    Optional<Client> findArchivedById(@Param("id") UUID id);
+
+    /**
+     * Applications still waiting for a decision, oldest first.
+     */
+    List<Client> findByStatusAndCreatedAtBeforeOrderByCreatedAt(Client.MortgageApplicationStatus status,
+                                                                 LocalDateTime createdBefore, Pageable pageable);
+
+    /**
+     * Sets the decision only while the application is still PROCESSING, so a decision retried by another
+     * instance does not overwrite the first one.
+     */
+    @Modifying
+    @Query("update Client c set c.status = :status, c.monthlyPayment = :monthlyPayment " +
+            "where c.id = :id and c.createdAt = :createdAt and c.status = :pendingStatus")
+    int updateDecision(@Param("id") UUID id,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("pendingStatus") Client.MortgageApplicationStatus pendingStatus,
+                       @Param("status") Client.MortgageApplicationStatus status,
+                       @Param("monthlyPayment") BigDecimal monthlyPayment);
 }
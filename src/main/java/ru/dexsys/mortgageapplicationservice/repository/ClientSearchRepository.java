@@ -0,0 +1,12 @@
+package ru.dexsys.mortgageapplicationservice.repository;
+
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCriteria;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCursor;
+import ru.dexsys.mortgageapplicationservice.model.ClientSummary;
+
+import java.util.List;
+
+public interface ClientSearchRepository {
+
+    List<ClientSummary> search(ClientSearchCriteria criteria, ClientSearchCursor after, int limit);
+}
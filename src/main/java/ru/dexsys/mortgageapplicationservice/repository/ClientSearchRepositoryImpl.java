@@ -0,0 +1,78 @@
+package ru.dexsys.mortgageapplicationservice.repository;
+
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCriteria;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCursor;
+import ru.dexsys.mortgageapplicationservice.model.ClientSummary;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ClientSearchRepositoryImpl implements ClientSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Seeks past the last (sort column, id) of the previous page instead of skipping rows, so every page
+     * costs the same index range scan regardless of its depth. The seek repeats the sort column bound on
+     * its own, since Postgres only derives index bounds from plain comparisons.
+     */
+    @Override
+    public List<ClientSummary> search(ClientSearchCriteria criteria, ClientSearchCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("select new ru.dexsys.mortgageapplicationservice.model.ClientSummary(" +
+                "c.id, c.firstName, c.secondName, c.lastName, c.birthDate, c.status, " +
+                "c.creditAmount, c.durationInMonths, c.monthlyPayment) from Client c where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (criteria.getStatus() != null) {
+            jpql.append(" and c.status = :status");
+            parameters.put("status", criteria.getStatus());
+        }
+        if (criteria.getCreditAmountFrom() != null) {
+            jpql.append(" and c.creditAmount >= :creditAmountFrom");
+            parameters.put("creditAmountFrom", criteria.getCreditAmountFrom());
+        }
+        if (criteria.getCreditAmountTo() != null) {
+            jpql.append(" and c.creditAmount <= :creditAmountTo");
+            parameters.put("creditAmountTo", criteria.getCreditAmountTo());
+        }
+        if (criteria.getBirthDateFrom() != null) {
+            jpql.append(" and c.birthDate >= :birthDateFrom");
+            parameters.put("birthDateFrom", criteria.getBirthDateFrom());
+        }
+        if (criteria.getBirthDateTo() != null) {
+            jpql.append(" and c.birthDate <= :birthDateTo");
+            parameters.put("birthDateTo", criteria.getBirthDateTo());
+        }
+        String sortColumn = sortColumn(criteria.sortKey());
+        if (after != null && sortColumn == null) {
+            jpql.append(" and c.id > :afterId");
+            parameters.put("afterId", after.getId());
+        } else if (after != null) {
+            jpql.append(" and ").append(sortColumn).append(" >= :afterValue and (")
+                    .append(sortColumn).append(" > :afterValue or c.id > :afterId)");
+            parameters.put("afterValue", after.getValue());
+            parameters.put("afterId", after.getId());
+        }
+        jpql.append(sortColumn == null ? " order by c.id" : " order by " + sortColumn + ", c.id");
+
+        TypedQuery<ClientSummary> query = entityManager.createQuery(jpql.toString(), ClientSummary.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String sortColumn(ClientSearchCriteria.SortKey sortKey) {
+        switch (sortKey) {
+            case CREDIT_AMOUNT:
+                return "c.creditAmount";
+            case BIRTH_DATE:
+                return "c.birthDate";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.dexsys.mortgageapplicationservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIds;
+
+import java.util.UUID;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+@Profile("reactive")
+@Repository
+public class ReactiveClientRepository {
+
+    private static final String TABLE = "clients";
+    private static final String ARCHIVE_TABLE = "clients_archive";
+
+    private final R2dbcEntityTemplate template;
+
+    @Autowired
+    public ReactiveClientRepository(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    public Mono<Client> findById(UUID id) {
+        return template.select(Client.class)
+                .from(TABLE)
+                .matching(query(where("id").is(id).and("created_at").is(ClientIds.createdAt(id))))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> template.select(Client.class)
+                        .from(ARCHIVE_TABLE)
+                        .matching(query(where("id").is(id)))
+                        .one()));
+    }
+
+    public Mono<Boolean> existsByIdentityHash(String identityHash) {
+        return template.getDatabaseClient()
+                .sql("SELECT EXISTS(SELECT 1 FROM client_identities WHERE identity_hash = :identityHash)")
+                .bind("identityHash", identityHash)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    public Mono<Client> insert(Client client) {
+        client.setIdentityHash(ClientIdentity.hash(client));
+        client.setCreatedAt(ClientIds.createdAt(client.getId()));
+        return template.insert(Client.class)
+                .into(TABLE)
+                .using(client);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Annuity payment calculation with the factors for every allowed duration computed once at startup,
+ * so a payment is a table lookup and one multiplication rounded the same way as the calculator service.
+ */
+@Component
+public class AnnuityPaymentEngine {
+
+    public static final int MAX_DURATION_IN_MONTHS = 1200;
+
+    private static final MathContext FACTOR_PRECISION = MathContext.DECIMAL128;
+    private static final int PAYMENT_SCALE = 2;
+
+    private final BigDecimal[] factors;
+    private final double[] approximateFactors;
+
+    @Autowired
+    public AnnuityPaymentEngine(CalculatorProperties properties) {
+        this(properties.getAnnualRate());
+    }
+
+    public AnnuityPaymentEngine(BigDecimal annualRate) {
+        this.factors = buildFactors(annualRate);
+        this.approximateFactors = new double[factors.length];
+        for (int months = 0; months < factors.length; months++) {
+            approximateFactors[months] = factors[months].doubleValue();
+        }
+    }
+
+    public BigDecimal calculateMonthlyPayment(BigDecimal creditAmount, int durationInMonths) {
+        return creditAmount.multiply(getFactor(durationInMonths)).setScale(PAYMENT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal getFactor(int durationInMonths) {
+        if (durationInMonths < 0 || durationInMonths > MAX_DURATION_IN_MONTHS) {
+            throw new IllegalArgumentException("durationInMonths out of range: " + durationInMonths);
+        }
+        return factors[durationInMonths];
+    }
+
+    /**
+     * The factor as a double, for estimates that are then confirmed with {@link #calculateMonthlyPayment}.
+     */
+    public double getApproximateFactor(int durationInMonths) {
+        if (durationInMonths < 0 || durationInMonths > MAX_DURATION_IN_MONTHS) {
+            throw new IllegalArgumentException("durationInMonths out of range: " + durationInMonths);
+        }
+        return approximateFactors[durationInMonths];
+    }
+
+    private static BigDecimal[] buildFactors(BigDecimal annualRate) {
+        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(1200), FACTOR_PRECISION);
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate);
+        BigDecimal[] factors = new BigDecimal[MAX_DURATION_IN_MONTHS + 1];
+        // A zero-month loan is due at once, so the whole amount is the payment
+        factors[0] = BigDecimal.ONE;
+        BigDecimal compound = BigDecimal.ONE;
+        for (int months = 1; months <= MAX_DURATION_IN_MONTHS; months++) {
+            compound = compound.multiply(growth, FACTOR_PRECISION);
+            if (monthlyRate.signum() == 0) {
+                factors[months] = BigDecimal.ONE.divide(BigDecimal.valueOf(months), FACTOR_PRECISION);
+            } else {
+                factors[months] = monthlyRate.multiply(compound, FACTOR_PRECISION)
+                        .divide(compound.subtract(BigDecimal.ONE), FACTOR_PRECISION);
+            }
+        }
+        return factors;
+    }
+}
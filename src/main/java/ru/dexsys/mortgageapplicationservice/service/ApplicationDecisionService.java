@@ -0,0 +1,175 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.DecisionProperties;
+import ru.dexsys.mortgageapplicationservice.config.ThreadingProperties;
+import ru.dexsys.mortgageapplicationservice.config.VirtualThreads;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Profile("!reactive")
+@Service
+public class ApplicationDecisionService {
+
+    private final CalculatorService calculatorService;
+    private final ClientService clientService;
+    private final DecisionProperties properties;
+    private final ApplicationMetrics metrics;
+    private final ThreadPoolExecutor decisionExecutor;
+    private final Timer decisionLag;
+    private final Counter decisionFailures;
+    private final Counter decisionRejections;
+    private final Counter decisionRetries;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ApplicationDecisionService(CalculatorService calculatorService, ClientService clientService,
+                                      DecisionProperties properties, ThreadingProperties threadingProperties,
+                                      ApplicationMetrics metrics, MeterRegistry meterRegistry) {
+        this.calculatorService = calculatorService;
+        this.clientService = clientService;
+        this.properties = properties;
+        this.metrics = metrics;
+
+        // A full queue rejects the decision instead of running it on the request thread: the application
+        // stays PROCESSING and retryUndecided picks it up once the queue has room again
+        this.decisionExecutor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                VirtualThreads.threadFactory("decision-", threadingProperties.isVirtual()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("mortgage.decision.queue.depth", decisionExecutor, executor -> executor.getQueue().size())
+                .description("Applications waiting for a decision")
+                .register(meterRegistry);
+        Gauge.builder("mortgage.decision.active", decisionExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Decisions currently in progress")
+                .register(meterRegistry);
+        this.decisionLag = Timer.builder("mortgage.decision.lag")
+                .description("Time from accepting an application to persisting its decision")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.decisionFailures = Counter.builder("mortgage.decision.failures")
+                .description("Asynchronous decisions that could not be made")
+                .register(meterRegistry);
+        this.decisionRejections = Counter.builder("mortgage.decision.rejected")
+                .description("Applications left PROCESSING because the decision queue was full")
+                .register(meterRegistry);
+        this.decisionRetries = Counter.builder("mortgage.decision.retries")
+                .description("Undecided applications submitted again")
+                .register(meterRegistry);
+    }
+
+    public boolean isAsync() {
+        return properties.isAsync();
+    }
+
+    public void decide(Client client) {
+        Optional<BigDecimal> calculatedMonthlyPayment =
+                calculatorService.calculateMonthlyPayment(client.getCreditAmount(), client.getDurationInMonths());
+
+        if (calculatedMonthlyPayment.isPresent()) {
+            BigDecimal monthlyPayment = calculatedMonthlyPayment.get();
+            if (client.getSalary().compareTo(monthlyPayment.multiply(BigDecimal.valueOf(2))) > 0) {
+                client.setStatus(Client.MortgageApplicationStatus.APPROVED);
+                client.setMonthlyPayment(monthlyPayment);
+            } else {
+                client.setStatus(Client.MortgageApplicationStatus.DENIED);
+            }
+            metrics.recordOutcome(client.getStatus());
+        }
+    }
+
+    /**
+     * Queues the decision for an application saved as PROCESSING. Returns false when the queue is full;
+     * the application then stays PROCESSING until {@link #retryUndecided} submits it again.
+     */
+    public boolean submit(Client client) {
+        UUID id = client.getId();
+        if (!inFlight.add(id)) {
+            return true;
+        }
+        Client decision = new Client();
+        decision.setSalary(client.getSalary());
+        decision.setCreditAmount(client.getCreditAmount());
+        decision.setDurationInMonths(client.getDurationInMonths());
+        long submittedAt = System.nanoTime();
+
+        try {
+            decisionExecutor.execute(() -> {
+                try {
+                    decide(decision);
+                    if (decision.getStatus() != null) {
+                        clientService.updateDecision(id, decision.getStatus(), decision.getMonthlyPayment());
+                    } else {
+                        decisionFailures.increment();
+                    }
+                } catch (RuntimeException e) {
+                    decisionFailures.increment();
+                    log.error("Decision for application {} failed", id, e);
+                } finally {
+                    inFlight.remove(id);
+                    decisionLag.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            decisionRejections.increment();
+            log.debug("Decision queue is full, application {} stays PROCESSING", id);
+            return false;
+        }
+    }
+
+    /**
+     * Submits applications that have been PROCESSING for longer than the retry delay: rejected by a full
+     * queue, failed, or lost with the instance that accepted them. Only as many as the queue has room for.
+     */
+    @Scheduled(fixedDelayString = "${mortgage.decision.retry-interval:PT30S}")
+    public void retryUndecided() {
+        if (!properties.isAsync() || decisionExecutor.isShutdown()) {
+            return;
+        }
+        int room = Math.min(decisionExecutor.getQueue().remainingCapacity(), properties.getRetryBatchSize());
+        if (room == 0) {
+            return;
+        }
+        LocalDateTime createdBefore = LocalDateTime.now(ZoneOffset.UTC).minus(properties.getRetryDelay());
+        for (Client client : clientService.findUndecided(createdBefore, room)) {
+            if (inFlight.contains(client.getId())) {
+                continue;
+            }
+            if (!submit(client)) {
+                return;
+            }
+            decisionRetries.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        decisionExecutor.shutdown();
+        decisionExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,252 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dexsys.mortgageapplicationservice.config.StatsProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.model.ApplicationStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application counts kept in striped counters: a baseline aggregated from the database plus the writes
+ * this instance committed since. The credit total is kept in kopecks so that it adds up exactly.
+ * Reconciliation replaces the baseline, which also brings in the writes of other instances; writes that
+ * commit while the aggregate query runs may be counted twice until the next one.
+ */
+@Slf4j
+@Profile("!reactive")
+@Component
+public class ApplicationStatistics {
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final Client.MortgageApplicationStatus[] STATUSES = Client.MortgageApplicationStatus.values();
+    private static final Client.Gender[] GENDERS = Client.Gender.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BigDecimal[] bucketBounds;
+    private final double[] approximateBucketBounds;
+    private final String aggregateQuery;
+    private volatile State state;
+
+    @Autowired
+    public ApplicationStatistics(JdbcTemplate jdbcTemplate, StatsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketBounds = properties.getCreditAmountBuckets().toArray(new BigDecimal[0]);
+        this.approximateBucketBounds = new double[bucketBounds.length];
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int i = 0; i < bucketBounds.length; i++) {
+            approximateBucketBounds[i] = bucketBounds[i].doubleValue();
+            bucket.append(" WHEN credit_amount <= ").append(bucketBounds[i].toPlainString()).append(" THEN ").append(i);
+        }
+        bucket.append(" ELSE ").append(bucketBounds.length).append(" END");
+        this.aggregateQuery = "SELECT status, gender, " + bucket + " AS bucket, COUNT(*) AS applications, " +
+                "COALESCE(SUM(credit_amount), 0) AS credit_amount FROM (SELECT status, gender, credit_amount FROM clients " +
+                "UNION ALL SELECT status, gender, credit_amount FROM clients_archive) c GROUP BY 1, 2, 3";
+        this.state = new State(new Tally(bucketBounds.length), new Tally(bucketBounds.length), null);
+    }
+
+    public void recordCreated(Client client) {
+        int status = statusIndex(client.getStatus());
+        int gender = genderIndex(client.getGender());
+        BigDecimal creditAmount = client.getCreditAmount();
+        afterCommit(() -> {
+            Tally deltas = state.deltas;
+            deltas.applications.increment();
+            deltas.byStatus[status].increment();
+            deltas.byGender[gender].increment();
+            if (creditAmount != null) {
+                deltas.byBucket[bucketIndex(creditAmount.doubleValue())].increment();
+                deltas.creditAmountCents.add(toCents(creditAmount));
+            }
+        });
+    }
+
+    /**
+     * Moves one application from PROCESSING to its decided status.
+     */
+    public void recordDecision(Client.MortgageApplicationStatus status) {
+        int decided = statusIndex(status);
+        afterCommit(() -> {
+            Tally deltas = state.deltas;
+            deltas.byStatus[statusIndex(Client.MortgageApplicationStatus.PROCESSING)].decrement();
+            deltas.byStatus[decided].increment();
+        });
+    }
+
+    public ApplicationStats getStats() {
+        State current = state;
+        Tally base = current.base;
+        Tally deltas = current.deltas;
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (int i = 0; i <= STATUSES.length; i++) {
+            long count = base.byStatus[i].sum() + deltas.byStatus[i].sum();
+            if (count != 0) {
+                byStatus.put(i < STATUSES.length ? STATUSES[i].name() : UNKNOWN, count);
+            }
+        }
+        Map<String, Long> byGender = new LinkedHashMap<>();
+        for (int i = 0; i <= GENDERS.length; i++) {
+            long count = base.byGender[i].sum() + deltas.byGender[i].sum();
+            if (count != 0) {
+                byGender.put(i < GENDERS.length ? GENDERS[i].name() : UNKNOWN, count);
+            }
+        }
+        List<ApplicationStats.Bucket> histogram = new ArrayList<>(bucketBounds.length + 1);
+        for (int i = 0; i <= bucketBounds.length; i++) {
+            histogram.add(new ApplicationStats.Bucket(i < bucketBounds.length ? bucketBounds[i] : null,
+                    base.byBucket[i].sum() + deltas.byBucket[i].sum()));
+        }
+
+        long approved = byStatus.getOrDefault(Client.MortgageApplicationStatus.APPROVED.name(), 0L);
+        long decided = approved + byStatus.getOrDefault(Client.MortgageApplicationStatus.DENIED.name(), 0L);
+        BigDecimal approvalRate = decided == 0 ? null
+                : BigDecimal.valueOf(approved).divide(BigDecimal.valueOf(decided), 4, RoundingMode.HALF_UP);
+        BigDecimal creditAmount = BigDecimal.valueOf(base.creditAmountCents.sum() + deltas.creditAmountCents.sum(), 2);
+
+        return new ApplicationStats(base.applications.sum() + deltas.applications.sum(), byStatus, byGender,
+                approvalRate, creditAmount, histogram, current.reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${mortgage.stats.reconcile-interval:PT5M}",
+            fixedDelayString = "${mortgage.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Tally deltas = new Tally(bucketBounds.length);
+        // Writes from here on are counted on top of the aggregate about to be read
+        state = new State(state.base.plus(state.deltas), deltas, state.reconciledAt);
+
+        Tally base = new Tally(bucketBounds.length);
+        jdbcTemplate.query(aggregateQuery, rs -> {
+            long applications = rs.getLong("applications");
+            base.applications.add(applications);
+            base.byStatus[statusIndex(rs.getString("status"))].add(applications);
+            base.byGender[genderIndex(rs.getString("gender"))].add(applications);
+            base.byBucket[rs.getInt("bucket")].add(applications);
+            base.creditAmountCents.add(toCents(rs.getBigDecimal("credit_amount")));
+        });
+        state = new State(base, deltas, Instant.now());
+        log.debug("Application statistics reconciled: {} applications", base.applications.sum());
+    }
+
+    /**
+     * Counts a write only once its transaction has committed, so a rollback leaves the statistics alone.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private int bucketIndex(double creditAmount) {
+        for (int i = 0; i < approximateBucketBounds.length; i++) {
+            if (creditAmount <= approximateBucketBounds[i]) {
+                return i;
+            }
+        }
+        return approximateBucketBounds.length;
+    }
+
+    private static int statusIndex(Client.MortgageApplicationStatus status) {
+        return status == null ? STATUSES.length : status.ordinal();
+    }
+
+    private static int statusIndex(String status) {
+        for (Client.MortgageApplicationStatus candidate : STATUSES) {
+            if (candidate.name().equals(status)) {
+                return candidate.ordinal();
+            }
+        }
+        return STATUSES.length;
+    }
+
+    private static int genderIndex(Client.Gender gender) {
+        return gender == null ? GENDERS.length : gender.ordinal();
+    }
+
+    private static int genderIndex(String gender) {
+        for (Client.Gender candidate : GENDERS) {
+            if (candidate.name().equals(gender)) {
+                return candidate.ordinal();
+            }
+        }
+        return GENDERS.length;
+    }
+
+    private static final class State {
+
+        private final Tally base;
+        private final Tally deltas;
+        private final Instant reconciledAt;
+
+        private State(Tally base, Tally deltas, Instant reconciledAt) {
+            this.base = base;
+            this.deltas = deltas;
+            this.reconciledAt = reconciledAt;
+        }
+    }
+
+    private static final class Tally {
+
+        private final LongAdder applications = new LongAdder();
+        private final LongAdder[] byStatus = adders(STATUSES.length + 1);
+        private final LongAdder[] byGender = adders(GENDERS.length + 1);
+        private final LongAdder[] byBucket;
+        private final LongAdder creditAmountCents = new LongAdder();
+
+        private Tally(int buckets) {
+            this.byBucket = adders(buckets + 1);
+        }
+
+        private Tally plus(Tally other) {
+            Tally sum = new Tally(byBucket.length - 1);
+            sum.applications.add(applications.sum() + other.applications.sum());
+            for (int i = 0; i < byStatus.length; i++) {
+                sum.byStatus[i].add(byStatus[i].sum() + other.byStatus[i].sum());
+            }
+            for (int i = 0; i < byGender.length; i++) {
+                sum.byGender[i].add(byGender[i].sum() + other.byGender[i].sum());
+            }
+            for (int i = 0; i < byBucket.length; i++) {
+                sum.byBucket[i].add(byBucket[i].sum() + other.byBucket[i].sum());
+            }
+            sum.creditAmountCents.add(creditAmountCents.sum() + other.creditAmountCents.sum());
+            return sum;
+        }
+
+        private static LongAdder[] adders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.BulkProperties;
+import ru.dexsys.mortgageapplicationservice.controller.RequestErrorMessages;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.model.BulkApplicationResult;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a JSON array or NDJSON stream of clients record by record and stores them in chunks:
+ * one duplicate query and one batched insert per chunk, one NDJSON result line per record.
+ * A chunk that cannot be stored reports a 500 for each of its records and the stream goes on.
+ * In the synchronous decision mode the calculator is still called once per record.
+ */
+@Slf4j
+@Profile("!reactive")
+@Service
+public class BulkApplicationService {
+
+    private static final String STORE_FAILED = "Application could not be stored";
+
+    private final ClientService clientService;
+    private final ApplicationDecisionService decisionService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader clientReader;
+    private final int batchSize;
+
+    @Autowired
+    public BulkApplicationService(ClientService clientService, ApplicationDecisionService decisionService,
+                                  Validator validator, ObjectMapper objectMapper, BulkProperties properties) {
+        this.clientService = clientService;
+        this.decisionService = decisionService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.clientReader = objectMapper.readerFor(Client.class);
+        this.batchSize = properties.getBatchSize();
+    }
+
+    public void process(InputStream body, OutputStream out) throws IOException {
+        List<Entry> chunk = new ArrayList<>(batchSize);
+        Set<String> submittedIdentities = new HashSet<>();
+        int index = 0;
+
+        try (MappingIterator<Client> records = clientReader.readValues(body)) {
+            while (true) {
+                Client client;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    client = records.nextValue();
+                } catch (JsonParseException e) {
+                    chunk.add(new Entry(index, BulkApplicationResult.failed(index, 400, e.getOriginalMessage())));
+                    break;
+                } catch (JsonMappingException e) {
+                    chunk.add(new Entry(index, BulkApplicationResult.failed(index, 400,
+                            RequestErrorMessages.fromMessage(e.getOriginalMessage()))));
+                    index++;
+                    continue;
+                }
+
+                Set<ConstraintViolation<Client>> violations = validator.validate(client);
+                if (!violations.isEmpty()) {
+                    chunk.add(new Entry(index, BulkApplicationResult.failed(index, 400,
+                            violations.iterator().next().getMessage())));
+                } else {
+                    chunk.add(new Entry(index, client));
+                }
+                index++;
+
+                if (chunk.size() >= batchSize) {
+                    processChunk(chunk, submittedIdentities, out);
+                    chunk.clear();
+                }
+            }
+        }
+        processChunk(chunk, submittedIdentities, out);
+    }
+
+    private void processChunk(List<Entry> chunk, Set<String> submittedIdentities, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> identityHashes = new HashSet<>();
+        for (Entry entry : chunk) {
+            if (entry.result == null) {
+                entry.identityHash = ClientIdentity.hash(entry.client);
+                identityHashes.add(entry.identityHash);
+            }
+        }
+        Set<String> existingIdentityHashes;
+        try {
+            existingIdentityHashes = clientService.findExistingIdentityHashes(identityHashes);
+        } catch (RuntimeException e) {
+            log.error("Duplicate check for bulk records {}..{} failed", chunk.get(0).index,
+                    chunk.get(chunk.size() - 1).index, e);
+            failPending(chunk);
+            writeResults(chunk, out);
+            return;
+        }
+
+        List<Client> accepted = new ArrayList<>(chunk.size());
+        for (Entry entry : chunk) {
+            if (entry.result != null) {
+                continue;
+            }
+            if (existingIdentityHashes.contains(entry.identityHash) || !submittedIdentities.add(entry.identityHash)) {
+                entry.result = BulkApplicationResult.failed(entry.index, 409, "Client duplicate");
+                continue;
+            }
+            try {
+                if (decisionService.isAsync()) {
+                    entry.client.setStatus(Client.MortgageApplicationStatus.PROCESSING);
+                } else {
+                    decisionService.decide(entry.client);
+                }
+                accepted.add(entry.client);
+            } catch (CalculatorException e) {
+                submittedIdentities.remove(entry.identityHash);
+                entry.result = BulkApplicationResult.failed(entry.index, 503, e.getMessage());
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                clientService.saveClients(accepted);
+            } catch (DuplicateClientException e) {
+                saveIndividually(chunk, submittedIdentities);
+            } catch (RuntimeException e) {
+                // The 200 and earlier chunks are already sent, so the chunk's records report the failure instead
+                log.error("Saving bulk records {}..{} failed", chunk.get(0).index,
+                        chunk.get(chunk.size() - 1).index, e);
+                for (Entry entry : chunk) {
+                    if (entry.result == null) {
+                        submittedIdentities.remove(entry.identityHash);
+                    }
+                }
+                failPending(chunk);
+            }
+        }
+
+        for (Entry entry : chunk) {
+            if (entry.result == null) {
+                entry.result = BulkApplicationResult.created(entry.index, entry.client.getId());
+                if (decisionService.isAsync()) {
+                    decisionService.submit(entry.client);
+                }
+            }
+        }
+        writeResults(chunk, out);
+    }
+
+    private void saveIndividually(List<Entry> chunk, Set<String> submittedIdentities) {
+        for (Entry entry : chunk) {
+            if (entry.result != null) {
+                continue;
+            }
+            try {
+                clientService.saveClients(List.of(entry.client));
+            } catch (DuplicateClientException e) {
+                entry.result = BulkApplicationResult.failed(entry.index, 409, "Client duplicate");
+            } catch (RuntimeException e) {
+                log.error("Saving bulk record {} failed", entry.index, e);
+                submittedIdentities.remove(entry.identityHash);
+                entry.result = BulkApplicationResult.failed(entry.index, 500, STORE_FAILED);
+            }
+        }
+    }
+
+    private static void failPending(List<Entry> chunk) {
+        for (Entry entry : chunk) {
+            if (entry.result == null) {
+                entry.result = BulkApplicationResult.failed(entry.index, 500, STORE_FAILED);
+            }
+        }
+    }
+
+    private void writeResults(List<Entry> chunk, OutputStream out) throws IOException {
+        for (Entry entry : chunk) {
+            out.write(objectMapper.writeValueAsBytes(entry.result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static final class Entry {
+
+        private final int index;
+        private final Client client;
+        private String identityHash;
+        private BulkApplicationResult result;
+
+        private Entry(int index, Client client) {
+            this.index = index;
+            this.client = client;
+        }
+
+        private Entry(int index, BulkApplicationResult result) {
+            this.index = index;
+            this.client = null;
+            this.result = result;
+        }
+    }
+}
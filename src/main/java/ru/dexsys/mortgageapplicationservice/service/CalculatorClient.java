@@ -0,0 +1,254 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+import ru.dexsys.mortgageapplicationservice.model.CalculateResponse;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP client for the remote calculator service. Calls go through a pooled keep-alive connection manager with
+ * timeouts, a bulkhead and a circuit breaker. Concurrent requests for the same calculation share one outbound call,
+ * and successful results are kept for a short time.
+ */
+@Profile("!reactive")
+@Component
+public class CalculatorClient {
+
+    private final String url;
+    private final long bulkheadMaxWaitNanos;
+    private final long leaderMaxWaitNanos;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<CalculationKey, BigDecimal> results;
+    private final ConcurrentMap<CalculationKey, CompletableFuture<Optional<BigDecimal>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter successfulCalls;
+    private final Counter failedCalls;
+    private final Counter rejectedCalls;
+
+    @Autowired
+    public CalculatorClient(CalculatorProperties properties, RestTemplateBuilder builder,
+                            MeterRegistry meterRegistry) {
+        this.url = properties.getUrl();
+        this.bulkheadMaxWaitNanos = properties.getBulkhead().getMaxWait().toNanos();
+        // Followers wait as long as the leader itself can take: the bulkhead, a pooled connection, connecting
+        // and reading the response
+        this.leaderMaxWaitNanos = properties.getBulkhead().getMaxWait()
+                .plus(properties.getConnectTimeout().multipliedBy(2))
+                .plus(properties.getReadTimeout())
+                .toNanos();
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnections());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.restTemplate = builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker().getFailureThreshold(),
+                properties.getCircuitBreaker().getOpenDuration());
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+
+        this.successfulCalls = callCounter(meterRegistry, "success");
+        this.failedCalls = callCounter(meterRegistry, "failure");
+        this.rejectedCalls = callCounter(meterRegistry, "rejected");
+        Gauge.builder("mortgage.calculator.pool.leased", connectionManager,
+                        manager -> manager.getTotalStats().getLeased())
+                .description("Calculator connections in use")
+                .register(meterRegistry);
+        Gauge.builder("mortgage.calculator.pool.pending", connectionManager,
+                        manager -> manager.getTotalStats().getPending())
+                .description("Requests waiting for a calculator connection")
+                .register(meterRegistry);
+        Gauge.builder("mortgage.calculator.pool.max", connectionManager,
+                        manager -> manager.getTotalStats().getMax())
+                .description("Maximum calculator connections")
+                .register(meterRegistry);
+        Gauge.builder("mortgage.calculator.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free calculator bulkhead permits")
+                .register(meterRegistry);
+        Gauge.builder("mortgage.calculator.circuit.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the calculator circuit breaker is open or half-open")
+                .register(meterRegistry);
+    }
+
+    public Optional<BigDecimal> calculateMonthlyPayment(BigDecimal creditAmount, Integer durationInMonths) {
+        CalculationKey key = new CalculationKey(creditAmount, durationInMonths);
+        BigDecimal cachedMonthlyPayment = results.getIfPresent(key);
+        if (cachedMonthlyPayment != null) {
+            return Optional.of(cachedMonthlyPayment);
+        }
+
+        CompletableFuture<Optional<BigDecimal>> call = new CompletableFuture<>();
+        CompletableFuture<Optional<BigDecimal>> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            return await(leader);
+        }
+        try {
+            Optional<BigDecimal> monthlyPayment = callGuarded(creditAmount, durationInMonths);
+            monthlyPayment.ifPresent(value -> results.put(key, value));
+            call.complete(monthlyPayment);
+            return monthlyPayment;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private Optional<BigDecimal> callGuarded(BigDecimal creditAmount, Integer durationInMonths) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CalculatorException("Interrupted while waiting for the calculator bulkhead", e);
+        }
+        if (!acquired) {
+            rejectedCalls.increment();
+            throw new CalculatorException("Calculator bulkhead is full");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedCalls.increment();
+                throw new CalculatorException("Calculator circuit breaker is open");
+            }
+            try {
+                ResponseEntity<CalculateResponse> calculateResponseEntity =
+                        restTemplate.postForEntity(url, new CalculateResponse(creditAmount, durationInMonths),
+                                CalculateResponse.class);
+                circuitBreaker.onSuccess();
+                successfulCalls.increment();
+
+                if (calculateResponseEntity.getStatusCode().equals(HttpStatus.OK) && calculateResponseEntity.getBody() != null) {
+                    return Optional.ofNullable(calculateResponseEntity.getBody().getMonthlyPayment());
+                }
+                return Optional.empty();
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                circuitBreaker.onFailure();
+                failedCalls.increment();
+                throw new CalculatorException("Calculator call failed: " + e.getMessage(), e);
+            } catch (RestClientException e) {
+                circuitBreaker.onSuccess();
+                failedCalls.increment();
+                throw new CalculatorException("Calculator call failed: " + e.getMessage(), e);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mortgage.calculator.calls")
+                .description("Calls to the calculator service by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Optional<BigDecimal> await(CompletableFuture<Optional<BigDecimal>> leader) {
+        try {
+            return leader.get(leaderMaxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CalculatorException) {
+                throw (CalculatorException) e.getCause();
+            }
+            throw new CalculatorException("Calculator call failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new CalculatorException("Calculator call timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CalculatorException("Interrupted while waiting for the calculator", e);
+        }
+    }
+
+    private static final class CalculationKey {
+
+        private final BigDecimal creditAmount;
+        private final int durationInMonths;
+
+        private CalculationKey(BigDecimal creditAmount, int durationInMonths) {
+            this.creditAmount = creditAmount.stripTrailingZeros();
+            this.durationInMonths = durationInMonths;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CalculationKey)) {
+                return false;
+            }
+            CalculationKey that = (CalculationKey) o;
+            return durationInMonths == that.durationInMonths && creditAmount.equals(that.creditAmount);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * creditAmount.hashCode() + durationInMonths;
+        }
+    }
+}
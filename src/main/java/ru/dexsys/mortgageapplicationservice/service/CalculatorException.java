@@ -0,0 +1,12 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+public class CalculatorException extends RuntimeException {
+
+    public CalculatorException(String message) {
+        super(message);
+    }
+
+    public CalculatorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
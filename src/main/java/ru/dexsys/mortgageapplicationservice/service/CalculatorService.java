@@ -0,0 +1,63 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Profile("!reactive")
+@Service
+public class CalculatorService {
+
+    private final CalculatorProperties properties;
+    private final AnnuityPaymentEngine paymentEngine;
+    private final CalculatorClient calculatorClient;
+    private final ThreadPoolExecutor verificationExecutor;
+
+    @Autowired
+    public CalculatorService(CalculatorProperties properties, AnnuityPaymentEngine paymentEngine,
+                             CalculatorClient calculatorClient) {
+        this.properties = properties;
+        this.paymentEngine = paymentEngine;
+        this.calculatorClient = calculatorClient;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("calculator-verification-");
+        threadFactory.setDaemon(true);
+        this.verificationExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public Optional<BigDecimal> calculateMonthlyPayment(BigDecimal creditAmount, Integer durationInMonths) {
+        switch (properties.getMode()) {
+            case LOCAL:
+                return Optional.of(paymentEngine.calculateMonthlyPayment(creditAmount, durationInMonths));
+            case LOCAL_WITH_REMOTE_VERIFICATION:
+                BigDecimal monthlyPayment = paymentEngine.calculateMonthlyPayment(creditAmount, durationInMonths);
+                verificationExecutor.execute(() -> verify(creditAmount, durationInMonths, monthlyPayment));
+                return Optional.of(monthlyPayment);
+            default:
+                return calculatorClient.calculateMonthlyPayment(creditAmount, durationInMonths);
+        }
+    }
+
+    private void verify(BigDecimal creditAmount, Integer durationInMonths, BigDecimal localMonthlyPayment) {
+        try {
+            calculatorClient.calculateMonthlyPayment(creditAmount, durationInMonths)
+                    .filter(remoteMonthlyPayment -> remoteMonthlyPayment.compareTo(localMonthlyPayment) != 0)
+                    .ifPresent(remoteMonthlyPayment -> log.warn(
+                            "Local monthly payment {} differs from calculator service {} for creditAmount={}, durationInMonths={}",
+                            localMonthlyPayment, remoteMonthlyPayment, creditAmount, durationInMonths));
+        } catch (CalculatorException e) {
+            log.warn("Calculator service verification failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.ArchiveProperties;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Moves decided applications older than the configured age into clients_archive in small batches, each
+ * one statement and one short transaction, and drops the monthly partitions archival left empty, so old
+ * months stop costing index and vacuum work.
+ * <p>
+ * Every instance schedules the job, but only the one holding a cluster-wide advisory lock runs it. All of
+ * its statements use that lock's session. Detaching a partition locks clients exclusively, and DETACH
+ * CONCURRENTLY is not allowed while clients has its default partition, so the detach waits at most the
+ * configured lock timeout and is retried on the next run.
+ */
+@Slf4j
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mortgage.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Service
+public class ClientArchiver {
+
+    private static final String COLUMNS = "id, first_name, second_name, last_name, passport, birth_date, gender, " +
+            "salary, credit_amount, duration_in_months, status, monthly_payment, identity_hash, created_at";
+    private static final String MOVE_BATCH = "WITH moved AS (DELETE FROM clients WHERE (id, created_at) IN (" +
+            "SELECT id, created_at FROM clients WHERE created_at < ? AND status IN ('APPROVED', 'DENIED') LIMIT ?) " +
+            "RETURNING " + COLUMNS + ") INSERT INTO clients_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved";
+    private static final String MONTHLY_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'clients' AND c.relname ~ '^clients_y[0-9]{4}m[0-9]{2}$'";
+    // "clients" in ASCII
+    private static final long ADVISORY_LOCK_KEY = 0x636c69656e7473L;
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("'clients_y'uuuu'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveProperties properties;
+
+    @Autowired
+    public ClientArchiver(JdbcTemplate jdbcTemplate, ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${mortgage.archive.cron:0 30 3 * * *}", zone = "UTC")
+    public void run() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, ADVISORY_LOCK_KEY)) {
+                log.debug("Archival is running on another instance");
+                return null;
+            }
+            try {
+                LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(properties.getAge());
+                long archived = archive(session, cutoff);
+                log.info("Archived {} decided applications created before {}", archived, cutoff);
+                dropEmptyPartitions(session, cutoff);
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            }
+            return null;
+        });
+    }
+
+    private long archive(JdbcTemplate session, LocalDateTime cutoff) {
+        long archived = 0;
+        int moved;
+        do {
+            moved = session.update(MOVE_BATCH, Timestamp.valueOf(cutoff), properties.getBatchSize());
+            archived += moved;
+        } while (moved == properties.getBatchSize());
+        return archived;
+    }
+
+    private void dropEmptyPartitions(JdbcTemplate session, LocalDateTime cutoff) {
+        List<String> partitions = session.queryForList(MONTHLY_PARTITIONS, String.class);
+        for (String partition : partitions) {
+            LocalDate monthEnd = YearMonth.parse(partition, PARTITION_MONTH).plusMonths(1).atDay(1);
+            if (monthEnd.atStartOfDay().isAfter(cutoff)
+                    || session.queryForObject("SELECT EXISTS(SELECT 1 FROM " + partition + ")", Boolean.class)) {
+                continue;
+            }
+            try {
+                session.execute("SET lock_timeout = '" + properties.getLockTimeout().toMillis() + "ms'");
+                session.execute("ALTER TABLE clients DETACH PARTITION " + partition);
+                session.execute("DROP TABLE " + partition);
+                log.info("Dropped empty partition {}", partition);
+            } catch (RuntimeException e) {
+                log.warn("Failed to drop partition {}, retrying on the next run: {}", partition, e.getMessage());
+            } finally {
+                session.execute("RESET lock_timeout");
+            }
+        }
+    }
+}
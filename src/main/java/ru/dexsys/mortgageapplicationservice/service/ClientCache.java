@@ -0,0 +1,47 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.config.ClientCacheProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds only decided applications: a PROCESSING one is about to change, so polling it must reach the database.
+ */
+@Component
+public class ClientCache {
+
+    private final Cache<UUID, Client> cache;
+
+    @Autowired
+    public ClientCache(ClientCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "clients");
+    }
+
+    public Optional<Client> get(UUID id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void putIfDecided(Client client) {
+        if (client.getStatus() == Client.MortgageApplicationStatus.APPROVED
+                || client.getStatus() == Client.MortgageApplicationStatus.DENIED) {
+            cache.put(client.getId(), client);
+        }
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,266 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.dexsys.mortgageapplicationservice.config.ExportProperties;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams every client row, live and archived, to the output without materializing the table. Rows are
+ * read in id-ordered chunks, each in its own short read-only transaction that is over before the chunk is
+ * written, so a slow client holds neither a connection nor a snapshot and the heap grows with the chunk size
+ * only.
+ */
+@Slf4j
+@Profile("!reactive")
+@Service
+public class ClientExportService {
+
+    private static final String COLUMNS = "id, first_name, second_name, last_name, passport, birth_date, gender, " +
+            "salary, credit_amount, duration_in_months, status, monthly_payment";
+    private static final String ALL_CLIENTS = "(SELECT " + COLUMNS + " FROM clients UNION ALL SELECT " + COLUMNS +
+            " FROM clients_archive) c";
+    private static final String FIRST_CHUNK = "SELECT " + COLUMNS + " FROM " + ALL_CLIENTS + " ORDER BY id LIMIT ?";
+    private static final String NEXT_CHUNK = "SELECT " + COLUMNS + " FROM " + ALL_CLIENTS +
+            " WHERE id > ? ORDER BY id LIMIT ?";
+    private static final RowMapper<ExportRow> EXPORT_ROW_MAPPER = (rs, rowNum) -> {
+        ExportRow row = new ExportRow();
+        row.id = rs.getObject("id", UUID.class);
+        row.firstName = rs.getString("first_name");
+        row.secondName = rs.getString("second_name");
+        row.lastName = rs.getString("last_name");
+        row.passport = rs.getString("passport");
+        row.birthDate = rs.getString("birth_date");
+        row.gender = rs.getString("gender");
+        row.salary = rs.getBigDecimal("salary");
+        row.creditAmount = rs.getBigDecimal("credit_amount");
+        int durationInMonths = rs.getInt("duration_in_months");
+        row.durationInMonths = rs.wasNull() ? null : durationInMonths;
+        row.status = rs.getString("status");
+        row.monthlyPayment = rs.getBigDecimal("monthly_payment");
+        return row;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    @Autowired
+    public ClientExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper, ExportProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.chunkSize = properties.getChunkSize();
+    }
+
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long total = 0;
+        UUID after = null;
+        List<ExportRow> chunk;
+
+        rowWriter.start();
+        do {
+            chunk = readChunk(after);
+            for (ExportRow row : chunk) {
+                rowWriter.write(row);
+            }
+            rowWriter.flush();
+            if (!chunk.isEmpty()) {
+                after = chunk.get(chunk.size() - 1).id;
+            }
+            total += chunk.size();
+        } while (chunk.size() == chunkSize);
+        rowWriter.finish();
+
+        log.info("Exported {} clients as {}", total, format);
+        return total;
+    }
+
+    private List<ExportRow> readChunk(UUID after) {
+        return transactionTemplate.execute(status -> after == null
+                ? jdbcTemplate.query(FIRST_CHUNK, EXPORT_ROW_MAPPER, chunkSize)
+                : jdbcTemplate.query(NEXT_CHUNK, EXPORT_ROW_MAPPER, after, chunkSize));
+    }
+
+    private static final class ExportRow {
+
+        private UUID id;
+        private String firstName;
+        private String secondName;
+        private String lastName;
+        private String passport;
+        private String birthDate;
+        private String gender;
+        private BigDecimal salary;
+        private BigDecimal creditAmount;
+        private Integer durationInMonths;
+        private String status;
+        private BigDecimal monthlyPayment;
+    }
+
+    private interface RowWriter {
+
+        void start() throws IOException;
+
+        void write(ExportRow row) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write("id,firstName,secondName,lastName,passport,birthDate,gender," +
+                    "salary,creditAmount,durationInMonths,status,monthlyPayment\n");
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writeField(row.id.toString());
+            writer.write(',');
+            writeField(row.firstName);
+            writer.write(',');
+            writeField(row.secondName);
+            writer.write(',');
+            writeField(row.lastName);
+            writer.write(',');
+            writeField(row.passport);
+            writer.write(',');
+            writeField(row.birthDate);
+            writer.write(',');
+            writeField(row.gender);
+            writer.write(',');
+            writeNumber(row.salary);
+            writer.write(',');
+            writeNumber(row.creditAmount);
+            writer.write(',');
+            if (row.durationInMonths != null) {
+                writer.write(row.durationInMonths.toString());
+            }
+            writer.write(',');
+            writeField(row.status);
+            writer.write(',');
+            writeNumber(row.monthlyPayment);
+            writer.write('\n');
+        }
+
+        private void writeNumber(BigDecimal value) throws IOException {
+            if (value != null) {
+                writer.write(value.toPlainString());
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", row.id.toString());
+            generator.writeStringField("firstName", row.firstName);
+            generator.writeStringField("secondName", row.secondName);
+            generator.writeStringField("lastName", row.lastName);
+            generator.writeStringField("passport", row.passport);
+            generator.writeStringField("birthDate", row.birthDate);
+            generator.writeStringField("gender", row.gender);
+            writeNumberField("salary", row.salary);
+            writeNumberField("creditAmount", row.creditAmount);
+            if (row.durationInMonths == null) {
+                generator.writeNullField("durationInMonths");
+            } else {
+                generator.writeNumberField("durationInMonths", row.durationInMonths);
+            }
+            generator.writeStringField("status", row.status);
+            if (row.monthlyPayment != null) {
+                generator.writeNumberField("monthlyPayment", row.monthlyPayment);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumberField(String name, BigDecimal value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.config.DuplicateFilterProperties;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over client identity hashes. A negative answer means the identity has never been stored,
+ * so the duplicate query can be skipped. Until the filter is warmed up every identity is reported as possibly present.
+ */
+@Component
+public class ClientIdentityFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private volatile boolean warmedUp;
+
+    @Autowired
+    public ClientIdentityFilter(DuplicateFilterProperties properties) {
+        this(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+    }
+
+    public ClientIdentityFilter(long expectedInsertions, double falsePositiveProbability) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (optimalBits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String identityHash) {
+        long first = firstHash(identityHash);
+        long second = secondHash(identityHash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((first + i * second) & Long.MAX_VALUE) % bitSize;
+            int wordIndex = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+
+    public boolean mightContain(String identityHash) {
+        if (!warmedUp) {
+            return true;
+        }
+        long first = firstHash(identityHash);
+        long second = secondHash(identityHash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((first + i * second) & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void markWarmedUp() {
+        warmedUp = true;
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    private static long firstHash(String identityHash) {
+        return Long.parseUnsignedLong(identityHash.substring(0, 16), 16);
+    }
+
+    private static long secondHash(String identityHash) {
+        return Long.parseUnsignedLong(identityHash.substring(16, 32), 16) | 1L;
+    }
+}
@@ -1,32 +1,170 @@
 package ru.dexsys.mortgageapplicationservice.service;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.dexsys.mortgageapplicationservice.config.ReadWriteRoutingDataSource;
 import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIds;
+import ru.dexsys.mortgageapplicationservice.model.ClientPage;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCriteria;
+import ru.dexsys.mortgageapplicationservice.model.ClientSearchCursor;
+import ru.dexsys.mortgageapplicationservice.model.ClientSummary;
 import ru.dexsys.mortgageapplicationservice.repository.ClientRepository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
+@Profile("!reactive")
 @Service
 public class ClientService {
 
     private ClientRepository clientRepository;
+    private ClientIdentityFilter identityFilter;
+    private ClientCache clientCache;
+    private GroupCommitWriter groupCommitWriter;
+    private RecentWrites recentWrites;
+    private ApplicationStatistics statistics;
 
     @Autowired
-    public ClientService(ClientRepository clientRepository) {
+    public ClientService(ClientRepository clientRepository, ClientIdentityFilter identityFilter,
+                         ClientCache clientCache, GroupCommitWriter groupCommitWriter, RecentWrites recentWrites,
+                         ApplicationStatistics statistics) {
         this.clientRepository = clientRepository;
+        this.identityFilter = identityFilter;
+        this.clientCache = clientCache;
+        this.groupCommitWriter = groupCommitWriter;
+        this.recentWrites = recentWrites;
+        this.statistics = statistics;
     }
 
     public Client saveClient(Client client) {
-        return clientRepository.save(client);
+        if (groupCommitWriter.isEnabled() && groupCommitWriter.insert(client)) {
+            identityFilter.put(client.getIdentityHash());
+            clientCache.invalidate(client.getId());
+            recentWrites.add(client.getId());
+            statistics.recordCreated(client);
+            return client;
+        }
+
+        try {
+            clientRepository.persistAndFlush(client);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateClientException.isIdentityConflict(e) ? new DuplicateClientException(e) : e;
+        }
+        identityFilter.put(client.getIdentityHash());
+        clientCache.invalidate(client.getId());
+        recentWrites.add(client.getId());
+        statistics.recordCreated(client);
+        return client;
+    }
+
+    @Transactional
+    public void saveClients(List<Client> clients) {
+        try {
+            clientRepository.persistAll(clients);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateClientException.isIdentityConflict(e) ? new DuplicateClientException(e) : e;
+        }
+        for (Client client : clients) {
+            identityFilter.put(client.getIdentityHash());
+            clientCache.invalidate(client.getId());
+            recentWrites.add(client.getId());
+            statistics.recordCreated(client);
+        }
+    }
+
+    public List<Client> findUndecided(LocalDateTime createdBefore, int limit) {
+        return clientRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(
+                Client.MortgageApplicationStatus.PROCESSING, createdBefore, PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public void updateDecision(UUID id, Client.MortgageApplicationStatus status, BigDecimal monthlyPayment) {
+        int updated = clientRepository.updateDecision(id, ClientIds.createdAt(id),
+                Client.MortgageApplicationStatus.PROCESSING, status, monthlyPayment);
+        if (updated == 0) {
+            log.debug("Application {} was already decided", id);
+            return;
+        }
+        clientCache.invalidate(id);
+        recentWrites.add(id);
+        statistics.recordDecision(status);
     }
 
+    /**
+     * Reads from the replica unless the id was written within the replica lag window. The read-only
+     * transaction is what routes it: the repository's declared query methods do not start one themselves.
+     */
+    @Transactional(readOnly = true)
     public Optional<Client> findClientById(String id) {
-        return clientRepository.findById(UUID.fromString(id));
+        UUID clientId = UUID.fromString(id);
+        Optional<Client> cachedClient = clientCache.get(clientId);
+        if (cachedClient.isPresent()) {
+            return cachedClient;
+        }
+        Optional<Client> savedClient = recentWrites.contains(clientId)
+                ? ReadWriteRoutingDataSource.onPrimary(() -> findLiveOrArchived(clientId))
+                : findLiveOrArchived(clientId);
+        savedClient.ifPresent(clientCache::putIfDecided);
+        return savedClient;
+    }
+
+    private Optional<Client> findLiveOrArchived(UUID id) {
+        Optional<Client> client = clientRepository.findByIdAndCreatedAt(id, ClientIds.createdAt(id));
+        return client.isPresent() ? client : clientRepository.findArchivedById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ClientPage searchClients(ClientSearchCriteria criteria, ClientSearchCursor after, int limit) {
+        List<ClientSummary> clients = clientRepository.search(criteria, after, limit + 1);
+        if (clients.size() > limit) {
+            List<ClientSummary> page = clients.subList(0, limit);
+            return new ClientPage(page, ClientSearchCursor.after(criteria.sortKey(), page.get(limit - 1)).encode());
+        }
+        return new ClientPage(clients, null);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasClientDuplicate(Client client) {
+        String identityHash = ClientIdentity.hash(client);
+        return identityFilter.mightContain(identityHash) && clientRepository.existsByIdentityHash(identityHash);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> findExistingIdentityHashes(Collection<String> identityHashes) {
+        List<String> candidates = identityHashes.stream()
+                .filter(identityFilter::mightContain)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(clientRepository.findExistingIdentityHashes(candidates));
     }
 
-    public Optional<Client> findClientDuplicate(String firstName, String secondName, String lastName, String passport) {
-        return clientRepository.findByFirstNameAndSecondNameAndLastNameAndPassport(firstName, secondName, lastName, passport);
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpIdentityFilter() {
+        try (Stream<String> identityHashes = clientRepository.streamAllIdentityHashes()) {
+            identityHashes.forEach(identityFilter::put);
+        }
+        identityFilter.markWarmedUp();
+        log.info("Client identity filter warmed up");
     }
 }
@@ -0,0 +1,21 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class DuplicateClientException extends RuntimeException {
+
+    private static final String IDENTITY_CONSTRAINT = "client_identities_pkey";
+
+    public DuplicateClientException() {
+        super("Client duplicate");
+    }
+
+    public DuplicateClientException(Throwable cause) {
+        super("Client duplicate", cause);
+    }
+
+    public static boolean isIdentityConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(IDENTITY_CONSTRAINT);
+    }
+}
@@ -0,0 +1,254 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.dexsys.mortgageapplicationservice.config.GroupCommitProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIds;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collects single-client inserts from concurrent requests and writes them as one batched insert
+ * in one transaction, so many requests share a single commit. A caller is released only after the
+ * transaction holding its row has committed. When a batch fails, its rows are retried one by one
+ * so that a single duplicate fails only its own caller.
+ * <p>
+ * Callers wait at most the commit timeout. A row the writer has not picked up by then is withdrawn and
+ * left to the caller to insert directly; a row already being written is waited for once more and then
+ * reported as failed. The writer thread survives any failure of a group and is restarted if it dies.
+ */
+@Slf4j
+@Profile("!reactive")
+@Component
+public class GroupCommitWriter {
+
+    private static final String INSERT_CLIENT = "INSERT INTO clients (id, first_name, second_name, last_name, " +
+            "passport, birth_date, gender, salary, credit_amount, duration_in_months, status, monthly_payment, " +
+            "identity_hash, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final GroupCommitProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentLinkedQueue<PendingInsert> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private final Counter fallbacks;
+    private final Counter timeouts;
+    private volatile Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public GroupCommitWriter(GroupCommitProperties properties, DataSource dataSource,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("mortgage.group-commit.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Inserts waiting for the next group commit")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("mortgage.group-commit.batch.size")
+                .description("Inserts written by one group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("mortgage.group-commit.flush")
+                .description("Time to insert and commit one group")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("mortgage.group-commit.fallbacks")
+                .description("Groups that failed and were retried row by row")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("mortgage.group-commit.timeouts")
+                .description("Inserts whose caller stopped waiting for the group commit")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            startWriter();
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (running && (writer == null || !writer.isAlive())) {
+            writer = new Thread(this::run, "group-commit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues the client and blocks until its row is committed. Returns false without writing
+     * anything when the queue is full or the row was not picked up within the commit timeout,
+     * leaving the caller to insert the row itself.
+     */
+    public boolean insert(Client client) {
+        if (!running || queueDepth.incrementAndGet() > properties.getQueueCapacity()) {
+            queueDepth.decrementAndGet();
+            return false;
+        }
+        if (!writer.isAlive()) {
+            startWriter();
+        }
+        client.setIdentityHash(ClientIdentity.hash(client));
+        client.setCreatedAt(ClientIds.createdAt(client.getId()));
+        PendingInsert pending = new PendingInsert(client);
+        queue.offer(pending);
+        if (queueDepth.get() >= properties.getMaxBatchSize()) {
+            LockSupport.unpark(writer);
+        }
+
+        try {
+            await(pending);
+        } catch (TimeoutException e) {
+            if (pending.taken.compareAndSet(false, true)) {
+                timeouts.increment();
+                return false;
+            }
+            try {
+                await(pending);
+            } catch (TimeoutException stillWriting) {
+                timeouts.increment();
+                throw new IllegalStateException("Group commit did not complete within "
+                        + properties.getCommitTimeout().multipliedBy(2), stillWriting);
+            }
+        }
+        return true;
+    }
+
+    private void await(PendingInsert pending) throws TimeoutException {
+        try {
+            pending.committed.get(properties.getCommitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    private void run() {
+        long maxDelayNanos = properties.getMaxDelay().toNanos();
+        List<PendingInsert> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queueDepth.get() < properties.getMaxBatchSize()) {
+                    LockSupport.parkNanos(this, maxDelayNanos);
+                }
+                PendingInsert pending;
+                while (batch.size() < properties.getMaxBatchSize() && (pending = queue.poll()) != null) {
+                    queueDepth.decrementAndGet();
+                    // Callers that gave up waiting insert their row themselves
+                    if (pending.taken.compareAndSet(false, true)) {
+                        batch.add(pending);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (Throwable e) {
+                log.error("Group commit of {} clients failed", batch.size(), e);
+                batch.forEach(insert -> insert.committed.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        long startedAt = System.nanoTime();
+        try {
+            write(batch);
+        } catch (DataIntegrityViolationException e) {
+            fallbacks.increment();
+            batch.forEach(this::flushAlone);
+            return;
+        } finally {
+            batchSize.record(batch.size());
+            flushLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        batch.forEach(insert -> insert.committed.complete(null));
+    }
+
+    private void flushAlone(PendingInsert insert) {
+        try {
+            write(List.of(insert));
+            insert.committed.complete(null);
+        } catch (DataIntegrityViolationException e) {
+            insert.committed.completeExceptionally(
+                    DuplicateClientException.isIdentityConflict(e) ? new DuplicateClientException(e) : e);
+        } catch (RuntimeException e) {
+            insert.committed.completeExceptionally(e);
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_CLIENT, batch,
+                batch.size(), (ps, insert) -> {
+                    Client client = insert.client;
+                    ps.setObject(1, client.getId());
+                    ps.setString(2, client.getFirstName());
+                    ps.setString(3, client.getSecondName());
+                    ps.setString(4, client.getLastName());
+                    ps.setString(5, client.getPassport());
+                    ps.setObject(6, client.getBirthDate());
+                    ps.setString(7, client.getGender() == null ? null : client.getGender().name());
+                    ps.setBigDecimal(8, client.getSalary());
+                    ps.setBigDecimal(9, client.getCreditAmount());
+                    ps.setObject(10, client.getDurationInMonths());
+                    ps.setString(11, client.getStatus() == null ? null : client.getStatus().name());
+                    ps.setBigDecimal(12, client.getMonthlyPayment());
+                    ps.setString(13, client.getIdentityHash());
+                    ps.setObject(14, client.getCreatedAt());
+                }));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static final class PendingInsert {
+
+        private final Client client;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingInsert(Client client) {
+            this.client = client;
+        }
+    }
+}
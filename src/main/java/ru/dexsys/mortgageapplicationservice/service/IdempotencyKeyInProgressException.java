@@ -0,0 +1,8 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still in progress");
+    }
+}
@@ -0,0 +1,8 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException() {
+        super("Idempotency-Key was already used with a different request");
+    }
+}
@@ -0,0 +1,228 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.IdempotencyProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+import ru.dexsys.mortgageapplicationservice.model.StoredResponse;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to every request carrying an Idempotency-Key, first in a bounded local cache
+ * and then in the idempotency_keys table, and answers retries from there. A request runs only after it
+ * has reserved its key with a row that has no response yet, so exactly one instance runs it. Concurrent
+ * requests with the same key wait, at most the wait timeout, for the one that got there first: on the
+ * same instance through the cache, on others by polling the row. Server errors are not remembered, so a
+ * retry after a 5xx runs the request again. A reservation older than the reservation timeout is taken
+ * to belong to an instance that died and is taken over.
+ */
+@Slf4j
+@Profile("!reactive")
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String SELECT_RESPONSE = "SELECT fingerprint, status_code, location, body " +
+            "FROM idempotency_keys WHERE idempotency_key = ?";
+    private static final String RESERVE = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at) " +
+            "VALUES (?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING";
+    private static final String TAKE_OVER = "UPDATE idempotency_keys SET created_at = ? " +
+            "WHERE idempotency_key = ? AND fingerprint = ? AND status_code IS NULL AND created_at < ?";
+    private static final String COMPLETE = "UPDATE idempotency_keys SET status_code = ?, location = ?, body = ? " +
+            "WHERE idempotency_key = ?";
+    private static final String RELEASE = "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL";
+    private static final String DELETE_EXPIRED = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    @Autowired
+    public IdempotencyService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    public ResponseEntity<?> execute(String key, Client client, Supplier<ResponseEntity<?>> request) {
+        String fingerprint = fingerprint(client);
+        while (true) {
+            CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(key, pending);
+            if (existing == null) {
+                return executeFirst(key, fingerprint, pending, request);
+            }
+            try {
+                return replay(existing.get(properties.getWaitTimeout().toNanos(), TimeUnit.NANOSECONDS),
+                        fingerprint);
+            } catch (ExecutionException e) {
+                // The first request failed without a response worth remembering, so this one runs it again
+                responses.asMap().remove(key, existing);
+            } catch (TimeoutException e) {
+                throw new IdempotencyKeyInProgressException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException();
+            }
+        }
+    }
+
+    private ResponseEntity<?> executeFirst(String key, String fingerprint, CompletableFuture<StoredResponse> pending,
+                                           Supplier<ResponseEntity<?>> request) {
+        boolean reserved = false;
+        try {
+            StoredResponse stored = reserve(key, fingerprint);
+            if (stored != null) {
+                // Replayed before completing, since a different body may have reserved the key and not finished
+                ResponseEntity<?> replayed = replay(stored, fingerprint);
+                pending.complete(stored);
+                return replayed;
+            }
+            reserved = true;
+
+            ResponseEntity<?> response = request.get();
+            if (response.getStatusCode().is5xxServerError()) {
+                jdbcTemplate.update(RELEASE, key);
+                responses.asMap().remove(key, pending);
+                pending.completeExceptionally(new IllegalStateException("Response is not stored"));
+                return response;
+            }
+
+            stored = toStoredResponse(fingerprint, response);
+            jdbcTemplate.update(COMPLETE, stored.getStatusCode(), stored.getLocation(), stored.getBody(), key);
+            pending.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            if (reserved) {
+                jdbcTemplate.update(RELEASE, key);
+            }
+            responses.asMap().remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves the key for this request and returns null, or returns the response another instance stored
+     * for it, waiting at most the wait timeout while that instance still holds the reservation.
+     */
+    private StoredResponse reserve(String key, String fingerprint) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        while (true) {
+            Instant now = Instant.now();
+            if (jdbcTemplate.update(RESERVE, key, fingerprint, Timestamp.from(now)) == 1) {
+                return null;
+            }
+            StoredResponse stored = find(key);
+            if (stored == null) {
+                // Released after a failure between the two statements
+                continue;
+            }
+            if (stored.getStatusCode() != null || !stored.getFingerprint().equals(fingerprint)) {
+                return stored;
+            }
+            if (jdbcTemplate.update(TAKE_OVER, Timestamp.from(now), key, fingerprint,
+                    Timestamp.from(now.minus(properties.getReservationTimeout()))) == 1) {
+                log.warn("Took over the abandoned reservation of an idempotency key");
+                return null;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IdempotencyKeyInProgressException();
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, POLL_INTERVAL.toNanos()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException();
+            }
+        }
+    }
+
+    private StoredResponse find(String key) {
+        List<StoredResponse> stored = jdbcTemplate.query(SELECT_RESPONSE, (rs, rowNum) -> new StoredResponse(
+                rs.getString("fingerprint"), rs.getObject("status_code", Integer.class), rs.getString("location"),
+                rs.getString("body")), key);
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    private StoredResponse toStoredResponse(String fingerprint, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = response.hasBody() ? objectMapper.writeValueAsString(response.getBody()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        URI location = response.getHeaders().getLocation();
+        return new StoredResponse(fingerprint, response.getStatusCodeValue(),
+                location == null ? null : location.toString(), body);
+    }
+
+    private static ResponseEntity<?> replay(StoredResponse stored, String fingerprint) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getStatusCode())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.getLocation() != null) {
+            response.header(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        if (stored.getBody() == null) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(stored.getBody());
+    }
+
+    static String fingerprint(Client client) {
+        return ClientIdentity.sha256Hex(String.join("\u001F",
+                String.valueOf(client.getFirstName()), String.valueOf(client.getSecondName()),
+                String.valueOf(client.getLastName()), String.valueOf(client.getPassport()),
+                String.valueOf(client.getBirthDate()), String.valueOf(client.getGender()),
+                client.getSalary() == null ? "null" : client.getSalary().stripTrailingZeros().toPlainString(),
+                client.getCreditAmount() == null ? "null" : client.getCreditAmount().stripTrailingZeros().toPlainString(),
+                String.valueOf(client.getDurationInMonths())));
+    }
+
+    @Scheduled(fixedDelayString = "${mortgage.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(Instant.now().minus(properties.getTtl())));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
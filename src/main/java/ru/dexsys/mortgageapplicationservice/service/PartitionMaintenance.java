@@ -0,0 +1,73 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.config.PartitionProperties;
+
+/**
+ * Creates the monthly partitions of clients ahead of time on every instance, blocking or reactive, at
+ * startup and periodically. A month without its partition would fill clients_default, and the partition
+ * could then only be created by moving its rows out first, which create_clients_partitions does. The
+ * function serializes concurrent callers itself, creates each month on its own and returns how many failed;
+ * failures are counted in mortgage.partitions.failures.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenance {
+
+    private static final String CREATE_PARTITIONS = "SELECT create_clients_partitions(%d)";
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final ObjectProvider<R2dbcEntityTemplate> r2dbcTemplate;
+    private final PartitionProperties properties;
+    private final Counter failures;
+
+    @Autowired
+    public PartitionMaintenance(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                ObjectProvider<R2dbcEntityTemplate> r2dbcTemplate, PartitionProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.r2dbcTemplate = r2dbcTemplate;
+        this.properties = properties;
+        this.failures = Counter.builder("mortgage.partitions.failures")
+                .description("Monthly partitions of clients that could not be created")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${mortgage.partitions.interval:PT6H}",
+            fixedDelayString = "${mortgage.partitions.interval:PT6H}")
+    public void createPartitions() {
+        String sql = String.format(CREATE_PARTITIONS, properties.getMonthsAhead());
+        Integer failed;
+        try {
+            JdbcTemplate jdbc = jdbcTemplate.getIfAvailable();
+            if (jdbc != null) {
+                failed = jdbc.queryForObject(sql, Integer.class);
+            } else {
+                failed = r2dbcTemplate.getObject().getDatabaseClient().sql(sql)
+                        .map(row -> row.get(0, Integer.class)).one().block();
+            }
+        } catch (RuntimeException e) {
+            // clients_default takes the rows meanwhile; the next run moves them out and retries
+            failures.increment();
+            log.error("Failed to create partitions of clients", e);
+            return;
+        }
+        if (failed != null && failed > 0) {
+            failures.increment(failed);
+            log.error("Failed to create {} monthly partitions of clients, see the database log", failed);
+        } else {
+            log.debug("Partitions of clients ensured {} months ahead", properties.getMonthsAhead());
+        }
+    }
+}
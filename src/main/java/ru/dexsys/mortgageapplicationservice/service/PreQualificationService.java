@@ -0,0 +1,68 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.dexsys.mortgageapplicationservice.model.PreQualificationOption;
+import ru.dexsys.mortgageapplicationservice.model.PreQualificationResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds, for every duration, the largest whole credit amount that would be approved for a salary: the one
+ * whose monthly payment, rounded as the calculator rounds it, is still less than half of the salary.
+ * The amount is estimated with doubles and then settled with the exact payment, which usually takes
+ * one or two BigDecimal multiplications per duration.
+ */
+@Service
+public class PreQualificationService {
+
+    public static final long MAX_CREDIT_AMOUNT = 1_000_000_000L;
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final AnnuityPaymentEngine paymentEngine;
+
+    @Autowired
+    public PreQualificationService(AnnuityPaymentEngine paymentEngine) {
+        this.paymentEngine = paymentEngine;
+    }
+
+    public PreQualificationResponse preQualify(BigDecimal salary) {
+        List<PreQualificationOption> options = new ArrayList<>(AnnuityPaymentEngine.MAX_DURATION_IN_MONTHS);
+        double halfSalary = salary.doubleValue() / 2;
+
+        for (int months = 1; months <= AnnuityPaymentEngine.MAX_DURATION_IN_MONTHS; months++) {
+            long creditAmount = (long) Math.min(MAX_CREDIT_AMOUNT,
+                    Math.floor(halfSalary / paymentEngine.getApproximateFactor(months)));
+            BigDecimal monthlyPayment = monthlyPayment(creditAmount, months);
+
+            while (creditAmount > 0 && !isApproved(salary, monthlyPayment)) {
+                creditAmount--;
+                monthlyPayment = monthlyPayment(creditAmount, months);
+            }
+            while (creditAmount < MAX_CREDIT_AMOUNT) {
+                BigDecimal nextMonthlyPayment = monthlyPayment(creditAmount + 1, months);
+                if (!isApproved(salary, nextMonthlyPayment)) {
+                    break;
+                }
+                creditAmount++;
+                monthlyPayment = nextMonthlyPayment;
+            }
+
+            if (creditAmount > 0 && isApproved(salary, monthlyPayment)) {
+                options.add(new PreQualificationOption(months, BigDecimal.valueOf(creditAmount), monthlyPayment));
+            }
+        }
+        return new PreQualificationResponse(salary, options);
+    }
+
+    private BigDecimal monthlyPayment(long creditAmount, int months) {
+        return paymentEngine.calculateMonthlyPayment(BigDecimal.valueOf(creditAmount), months);
+    }
+
+    private static boolean isApproved(BigDecimal salary, BigDecimal monthlyPayment) {
+        return salary.compareTo(monthlyPayment.multiply(TWO)) > 0;
+    }
+}
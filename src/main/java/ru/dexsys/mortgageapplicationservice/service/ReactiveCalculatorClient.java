@@ -0,0 +1,49 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+import ru.dexsys.mortgageapplicationservice.model.CalculateResponse;
+
+import java.math.BigDecimal;
+
+@Profile("reactive")
+@Component
+public class ReactiveCalculatorClient {
+
+    private final String url;
+    private final WebClient webClient;
+
+    @Autowired
+    public ReactiveCalculatorClient(CalculatorProperties properties, WebClient.Builder builder) {
+        this.url = properties.getUrl();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("calculator")
+                .maxConnections(properties.getMaxConnections())
+                .maxIdleTime(properties.getKeepAlive())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        this.webClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    public Mono<BigDecimal> calculateMonthlyPayment(BigDecimal creditAmount, Integer durationInMonths) {
+        return webClient.post()
+                .uri(url)
+                .bodyValue(new CalculateResponse(creditAmount, durationInMonths))
+                .retrieve()
+                .bodyToMono(CalculateResponse.class)
+                .flatMap(calculateResponse -> Mono.justOrEmpty(calculateResponse.getMonthlyPayment()))
+                .onErrorMap(e -> !(e instanceof CalculatorException),
+                        e -> new CalculatorException("Calculator call failed: " + e.getMessage(), e));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+
+import java.math.BigDecimal;
+
+@Slf4j
+@Profile("reactive")
+@Service
+public class ReactiveDecisionService {
+
+    private final CalculatorProperties properties;
+    private final AnnuityPaymentEngine paymentEngine;
+    private final ReactiveCalculatorClient calculatorClient;
+    private final ApplicationMetrics metrics;
+
+    @Autowired
+    public ReactiveDecisionService(CalculatorProperties properties, AnnuityPaymentEngine paymentEngine,
+                                   ReactiveCalculatorClient calculatorClient, ApplicationMetrics metrics) {
+        this.properties = properties;
+        this.paymentEngine = paymentEngine;
+        this.calculatorClient = calculatorClient;
+        this.metrics = metrics;
+    }
+
+    public Mono<Client> decide(Client client) {
+        return calculateMonthlyPayment(client.getCreditAmount(), client.getDurationInMonths())
+                .map(monthlyPayment -> {
+                    if (client.getSalary().compareTo(monthlyPayment.multiply(BigDecimal.valueOf(2))) > 0) {
+                        client.setStatus(Client.MortgageApplicationStatus.APPROVED);
+                        client.setMonthlyPayment(monthlyPayment);
+                    } else {
+                        client.setStatus(Client.MortgageApplicationStatus.DENIED);
+                    }
+                    metrics.recordOutcome(client.getStatus());
+                    return client;
+                })
+                .defaultIfEmpty(client);
+    }
+
+    private Mono<BigDecimal> calculateMonthlyPayment(BigDecimal creditAmount, Integer durationInMonths) {
+        switch (properties.getMode()) {
+            case LOCAL:
+                return Mono.fromSupplier(() -> paymentEngine.calculateMonthlyPayment(creditAmount, durationInMonths));
+            case LOCAL_WITH_REMOTE_VERIFICATION:
+                BigDecimal monthlyPayment = paymentEngine.calculateMonthlyPayment(creditAmount, durationInMonths);
+                calculatorClient.calculateMonthlyPayment(creditAmount, durationInMonths)
+                        .filter(remoteMonthlyPayment -> remoteMonthlyPayment.compareTo(monthlyPayment) != 0)
+                        .subscribe(remoteMonthlyPayment -> log.warn(
+                                "Local monthly payment {} differs from calculator service {} for creditAmount={}, durationInMonths={}",
+                                monthlyPayment, remoteMonthlyPayment, creditAmount, durationInMonths),
+                                e -> log.warn("Calculator service verification failed: {}", e.getMessage()));
+                return Mono.just(monthlyPayment);
+            default:
+                return calculatorClient.calculateMonthlyPayment(creditAmount, durationInMonths);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.dexsys.mortgageapplicationservice.config.ReplicaDataSourceProperties;
+
+import java.util.UUID;
+
+/**
+ * Ids written within the replica lag window. Reading one of them from the replica could miss the write,
+ * so such reads go to the primary. Does nothing when no replica is configured.
+ */
+@Component
+public class RecentWrites {
+
+    private final Cache<UUID, Boolean> ids;
+
+    @Autowired
+    public RecentWrites(ReplicaDataSourceProperties properties) {
+        this.ids = StringUtils.hasText(properties.getUrl())
+                ? Caffeine.newBuilder().expireAfterWrite(properties.getLagWindow()).build()
+                : null;
+    }
+
+    public void add(UUID id) {
+        if (ids != null) {
+            ids.put(id, Boolean.TRUE);
+        }
+    }
+
+    public boolean contains(UUID id) {
+        return ids != null && ids.getIfPresent(id) != null;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+import ru.dexsys.mortgageapplicationservice.config.StartupProperties;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens the connection pools to their minimum size and makes a few calculator calls before the application
+ * reports readiness, since runners complete before the readiness state changes. The first requests after a
+ * scale-out then find open connections and a warm HTTP client instead of paying for them. Failures are only
+ * logged: a slow dependency should not keep the instance from starting.
+ */
+@Slf4j
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mortgage.startup.warm-up.enabled", havingValue = "true")
+@Component
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final BigDecimal WARM_UP_CREDIT_AMOUNT = new BigDecimal("3000000");
+    private static final int WARM_UP_DURATION_IN_MONTHS = 120;
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final CalculatorService calculatorService;
+    private final CalculatorProperties calculatorProperties;
+    private final StartupProperties properties;
+
+    @Autowired
+    public StartupWarmUp(ObjectProvider<HikariDataSource> dataSources, CalculatorService calculatorService,
+                         CalculatorProperties calculatorProperties, StartupProperties properties) {
+        this.dataSources = dataSources;
+        this.calculatorService = calculatorService;
+        this.calculatorProperties = calculatorProperties;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        dataSources.orderedStream().forEach(this::warmUpPool);
+        if (calculatorProperties.getMode() != CalculatorProperties.Mode.LOCAL) {
+            warmUpCalculator();
+        }
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void warmUpPool(HikariDataSource dataSource) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            connections.add(dataSource.getConnection());
+            // The pool configuration is only final once the pool has started
+            int size = Math.min(dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+            while (connections.size() < size) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Connection pool {} warm-up failed: {}", dataSource.getPoolName(), e.getMessage());
+        } finally {
+            connections.forEach(this::close);
+        }
+        log.info("Connection pool {} warmed up with {} connections", dataSource.getPoolName(), connections.size());
+    }
+
+    private void warmUpCalculator() {
+        for (int i = 0; i < properties.getWarmUp().getCalculatorRequests(); i++) {
+            try {
+                // Distinct durations so the calls reach the calculator instead of the response cache
+                calculatorService.calculateMonthlyPayment(WARM_UP_CREDIT_AMOUNT, WARM_UP_DURATION_IN_MONTHS + i);
+            } catch (RuntimeException e) {
+                log.warn("Calculator warm-up failed: {}", e.getMessage());
+                return;
+            }
+        }
+        log.info("Calculator client warmed up");
+    }
+
+    private void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to return warm-up connection", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+
+    public UnsupportedExportFormatException() {
+        super("format should be csv or ndjson");
+    }
+}
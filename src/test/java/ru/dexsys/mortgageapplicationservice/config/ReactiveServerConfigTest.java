@@ -0,0 +1,30 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.reactive.ReactiveWebServerFactoryAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveServerConfigTest {
+
+    private final ReactiveWebApplicationContextRunner runner = new ReactiveWebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ReactiveWebServerFactoryAutoConfiguration.class))
+            .withUserConfiguration(ReactiveServerConfig.class);
+
+    @Test
+    void reactiveProfileRunsOnNetty() {
+        runner.withPropertyValues("spring.profiles.active=reactive")
+                .run(context -> assertThat(context).getBean(ReactiveWebServerFactory.class)
+                        .isInstanceOf(NettyReactiveWebServerFactory.class));
+    }
+
+    @Test
+    void tomcatIsPreferredWithoutTheFactory() {
+        runner.run(context -> assertThat(context).getBean(ReactiveWebServerFactory.class)
+                .isNotInstanceOf(NettyReactiveWebServerFactory.class));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource routing = ReadWriteRoutingDataSource.create(database("primary"), database("replica"));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(16))");
+        template.execute("DELETE FROM origin");
+        template.update("INSERT INTO origin VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void routesWritesAndNonTransactionalCallsToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> origin()));
+        assertEquals("primary", origin());
+    }
+
+    @Test
+    void routesForcedReadsToPrimaryInsideReadOnlyTransaction() {
+        assertEquals("primary", readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::origin)));
+    }
+}
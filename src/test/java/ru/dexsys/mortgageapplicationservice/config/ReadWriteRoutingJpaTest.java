@@ -0,0 +1,80 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing through JPA, where Hibernate holds the connection it first obtains until the EntityManager is
+ * closed. Without open-in-view each transaction gets its own EntityManager and so its own routing decision.
+ */
+class ReadWriteRoutingJpaTest {
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(ReadWriteRoutingDataSource.create(database("jpa-primary"), database("jpa-replica")));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(ReadWriteRoutingJpaTest.class.getPackageName());
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(16))");
+        template.execute("DELETE FROM origin");
+        template.update("INSERT INTO origin VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String origin() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM origin").getSingleResult();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertEquals("jpa-replica", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void routesWriteAfterReadOnlyLookupToPrimary() {
+        assertEquals("jpa-replica", readOnly.execute(status -> origin()));
+        assertEquals("jpa-primary", readWrite.execute(status -> origin()));
+    }
+
+    @Test
+    void routesForcedReadsToPrimaryInsideReadOnlyTransaction() {
+        assertEquals("jpa-primary", readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::origin)));
+    }
+}
@@ -0,0 +1,29 @@
+package ru.dexsys.mortgageapplicationservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupConfigTest {
+
+    @Test
+    void recordsNothingByDefault() {
+        assertSame(ApplicationStartup.DEFAULT, StartupConfig.applicationStartup());
+        assertSame(ApplicationStartup.DEFAULT, StartupConfig.applicationStartup("--spring.profiles.active=reactive"));
+    }
+
+    @Test
+    void buffersStepsForFastStartup() {
+        assertTrue(StartupConfig.applicationStartup("--spring.profiles.active=reactive,fast-startup")
+                instanceof BufferingApplicationStartup);
+    }
+
+    @Test
+    void buffersStepsWhenAskedTo() {
+        assertTrue(StartupConfig.applicationStartup("--mortgage.startup.record-steps=true")
+                instanceof BufferingApplicationStartup);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+import ru.dexsys.mortgageapplicationservice.service.ClientService;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ClientControllerTest {
+
+    private final Client stored = new Client();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ClientController(
+            new ClientService(null, null, null, null, null, null) {
+                @Override
+                public Optional<Client> findClientById(String id) {
+                    return id.equals(stored.getId().toString()) ? Optional.of(stored) : Optional.empty();
+                }
+            }, null, null, null, new ApplicationMetrics(new SimpleMeterRegistry()))).build();
+
+    ClientControllerTest() {
+        stored.setStatus(Client.MortgageApplicationStatus.APPROVED);
+        stored.setMonthlyPayment(new BigDecimal("1234.56"));
+    }
+
+    @Test
+    void decisionIsTheETag() throws Exception {
+        mockMvc.perform(get("/mortgage/application/{id}", stored.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"APPROVED-1234.56\""))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void unchangedDecisionIsNotModified() throws Exception {
+        mockMvc.perform(get("/mortgage/application/{id}", stored.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"APPROVED-1234.56\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changedDecisionIsSentAgain() throws Exception {
+        mockMvc.perform(get("/mortgage/application/{id}", stored.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"PROCESSING\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"APPROVED-1234.56\""));
+    }
+}
@@ -0,0 +1,90 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.dexsys.mortgageapplicationservice.config.ConcurrencyLimitProperties;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void slowCalculatorShrinksTheLimitUntilRequestsAreShed() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getSubmit().setInitialLimit(4);
+        properties.getSubmit().setMinLimit(1);
+        properties.getSubmit().setLatencyThreshold(Duration.ofMillis(20));
+        properties.getSubmit().setBackoffRatio(0.5);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, new ObjectMapper(), registry);
+
+        // Each answer from the calculator takes longer than the threshold
+        FilterChain slowCalculator = (request, response) -> sleep(50);
+        assertEquals(200, submit(filter, slowCalculator).getStatus());
+        assertEquals(2, submitLimit());
+        assertEquals(200, submit(filter, slowCalculator).getStatus());
+        assertEquals(1, submitLimit());
+
+        CountDownLatch calculating = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> inFlight = CompletableFuture.supplyAsync(() ->
+                submit(filter, (request, response) -> {
+                    calculating.countDown();
+                    await(answer);
+                }));
+        assertTrue(calculating.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse shed = submit(filter, (request, response) -> {
+            throw new AssertionError("A shed request must not reach the calculator");
+        });
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\":\"Service overloaded\"}", shed.getContentAsString());
+        assertEquals(1, registry.get("mortgage.concurrency.rejections").tag("endpoint", "submit").counter().count());
+
+        answer.countDown();
+        assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    private int submitLimit() {
+        return (int) registry.get("mortgage.concurrency.limit").tag("endpoint", "submit").gauge().value();
+    }
+
+    private static MockHttpServletResponse submit(ConcurrencyLimitFilter filter, FilterChain calculator) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("POST", "/mortgage/application"), response, calculator);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.dexsys.mortgageapplicationservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.dexsys.mortgageapplicationservice.config.ClientCacheProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.metrics.ApplicationMetrics;
+import ru.dexsys.mortgageapplicationservice.repository.ReactiveClientRepository;
+import ru.dexsys.mortgageapplicationservice.service.CalculatorException;
+import ru.dexsys.mortgageapplicationservice.service.ClientCache;
+import ru.dexsys.mortgageapplicationservice.service.ReactiveDecisionService;
+
+import javax.validation.Validation;
+import java.util.UUID;
+
+/**
+ * The error bodies must be the ones {@link ClientController} returns for the same requests.
+ */
+class ReactiveClientControllerTest {
+
+    private static final String CLIENT_JSON = "{\"firstName\":\"Иван\",\"secondName\":\"Иванович\"," +
+            "\"lastName\":\"Иванов\",\"passport\":\"9410123456\",\"birthDate\":\"1990-10-23\",\"gender\":\"MALE\"," +
+            "\"salary\":80000,\"creditAmount\":3000000,\"durationInMonths\":120}";
+
+    private boolean duplicate;
+    private boolean calculatorDown;
+
+    private final ReactiveClientRepository repository = new ReactiveClientRepository(null) {
+        @Override
+        public Mono<Client> findById(UUID id) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Boolean> existsByIdentityHash(String identityHash) {
+            return Mono.just(duplicate);
+        }
+
+        @Override
+        public Mono<Client> insert(Client client) {
+            return Mono.just(client);
+        }
+    };
+    private final ReactiveDecisionService decisionService = new ReactiveDecisionService(null, null, null, null) {
+        @Override
+        public Mono<Client> decide(Client client) {
+            if (calculatorDown) {
+                return Mono.error(new CalculatorException("calculator is down"));
+            }
+            client.setStatus(Client.MortgageApplicationStatus.APPROVED);
+            return Mono.just(client);
+        }
+    };
+    private final WebTestClient client = webTestClient();
+
+    @Test
+    void invalidClientIs400() {
+        post(CLIENT_JSON.replace("\"salary\":80000,", ""))
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"salary cannot be null\"}");
+    }
+
+    @Test
+    void unreadableDateIs400() {
+        post(CLIENT_JSON.replace("1990-10-23", "23.10.1990"))
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"date format yyyy-mm-dd, example 1999-01-21\"}");
+    }
+
+    @Test
+    void unknownGenderIs400() {
+        post(CLIENT_JSON.replace("MALE", "OTHER"))
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"gender should be MALE or FEMALE\"}");
+    }
+
+    @Test
+    void malformedIdIs400() {
+        client.get().uri("/mortgage/application/{id}", "42")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"invalid id\"}");
+    }
+
+    @Test
+    void unknownIdIs404() {
+        client.get().uri("/mortgage/application/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void duplicateIs409() {
+        duplicate = true;
+
+        post(CLIENT_JSON)
+                .expectStatus().isEqualTo(409)
+                .expectBody().json("{\"error\":\"Client duplicate\"}");
+    }
+
+    @Test
+    void calculatorFailureIs503() {
+        calculatorDown = true;
+
+        post(CLIENT_JSON)
+                .expectStatus().isEqualTo(503)
+                .expectBody().json("{\"error\":\"Calculator service unavailable\"}");
+    }
+
+    private WebTestClient.ResponseSpec post(String body) {
+        return client.post().uri("/mortgage/application")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    private WebTestClient webTestClient() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReactiveClientController controller = new ReactiveClientController(repository, decisionService,
+                new ClientCache(new ClientCacheProperties(), meterRegistry),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ApplicationMetrics(meterRegistry));
+        return WebTestClient.bindToController(controller)
+                .httpMessageCodecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                })
+                .build();
+    }
+}
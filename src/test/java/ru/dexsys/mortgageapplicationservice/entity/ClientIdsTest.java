@@ -0,0 +1,50 @@
+package ru.dexsys.mortgageapplicationservice.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientIdsTest {
+
+    @Test
+    void recoversCreationTimeFromId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 15, 10, 20, 30, 123_000_000);
+        UUID id = ClientIds.newId(createdAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(createdAt, ClientIds.createdAt(id));
+    }
+
+    @Test
+    void idsAreOrderedByCreationTime() {
+        UUID earlier = ClientIds.newId(1_700_000_000_000L);
+        UUID later = ClientIds.newId(1_700_000_000_001L);
+
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void randomIdsBelongToLegacyPartition() {
+        assertEquals(ClientIds.LEGACY_CREATED_AT, ClientIds.createdAt(UUID.randomUUID()));
+    }
+
+    @Test
+    void clientSuppliedIdIsIgnored() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String id : new String[]{"\"00000000-0000-4000-8000-000000000001\"",
+                "\"7fffffff-ffff-7fff-bfff-ffffffffffff\"", "null"}) {
+            UUID assigned = objectMapper.readValue("{\"id\":" + id + "}", Client.class).getId();
+
+            assertEquals(7, assigned.version());
+            assertNotEquals(id, "\"" + assigned + "\"");
+        }
+    }
+}
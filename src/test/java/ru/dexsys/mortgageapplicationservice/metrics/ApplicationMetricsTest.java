@@ -0,0 +1,40 @@
+package ru.dexsys.mortgageapplicationservice.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ApplicationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ApplicationMetrics metrics = new ApplicationMetrics(registry);
+
+    @Test
+    void recordsStageThatReturns() {
+        assertEquals("ok", metrics.timeCreateStage(ApplicationMetrics.Stage.VALIDATION, () -> "ok"));
+
+        assertEquals(1, stageTimer("createMortgageApplication", "validation").count());
+    }
+
+    @Test
+    void recordsStageThatThrows() {
+        assertThrows(IllegalStateException.class, () -> metrics.timeCreateStage(ApplicationMetrics.Stage.CALCULATOR,
+                () -> {
+                    throw new IllegalStateException("calculator is down");
+                }));
+        assertThrows(IllegalStateException.class, () -> metrics.timeGetStage(ApplicationMetrics.Stage.LOOKUP,
+                () -> {
+                    throw new IllegalStateException("database is down");
+                }));
+
+        assertEquals(1, stageTimer("createMortgageApplication", "calculator").count());
+        assertEquals(1, stageTimer("getClientById", "lookup").count());
+    }
+
+    private Timer stageTimer(String operation, String stage) {
+        return registry.get("mortgage.application.stage").tag("operation", operation).tag("stage", stage).timer();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.dexsys.mortgageapplicationservice.migration;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.jupiter.api.Test;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdentityHashBackfillTest {
+
+    @Test
+    void hashesExistingRowsLikeNewApplications() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:backfill", "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE clients (id INT PRIMARY KEY, first_name VARCHAR(255), " +
+                    "second_name VARCHAR(255), last_name VARCHAR(255), passport VARCHAR(255), identity_hash VARCHAR(64))");
+            statement.execute("INSERT INTO clients (id, first_name, second_name, last_name, passport) VALUES " +
+                    "(1, 'ИВАН', 'Иванович', ' Иванов', '9410123456'), " +
+                    "(2, 'Иван' || CHAR(9), 'Иванович', 'Иванов', '9410123456' || CHAR(10))");
+
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(
+                    new JdbcConnection(connection));
+            new IdentityHashBackfill().execute(database);
+
+            String expected = ClientIdentity.hash("иван", "иванович", "иванов", "9410123456");
+            try (ResultSet rs = statement.executeQuery("SELECT identity_hash FROM clients ORDER BY id")) {
+                int rows = 0;
+                while (rs.next()) {
+                    assertEquals(expected, rs.getString(1));
+                    rows++;
+                }
+                assertEquals(2, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.dexsys.mortgageapplicationservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientSearchCursorTest {
+
+    private static final UUID ID = UUID.fromString("01a14bb5-2567-78b8-93f7-f6a88f722f5b");
+
+    @Test
+    void roundTripsEverySortKey() {
+        ClientSummary client = new ClientSummary(ID, "Иван", "Иванович", "Иванов", LocalDate.of(1990, 10, 23),
+                null, new BigDecimal("3000000.0"), 120, null);
+
+        for (ClientSearchCriteria.SortKey sortKey : ClientSearchCriteria.SortKey.values()) {
+            ClientSearchCursor cursor = ClientSearchCursor.after(sortKey, client);
+            assertEquals(cursor, ClientSearchCursor.decode(sortKey, cursor.encode()));
+        }
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSortOrder() {
+        String token = new ClientSearchCursor(LocalDate.of(1990, 10, 23), ID).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ClientSearchCursor.decode(ClientSearchCriteria.SortKey.ID, token));
+        assertThrows(IllegalArgumentException.class,
+                () -> ClientSearchCursor.decode(ClientSearchCriteria.SortKey.CREDIT_AMOUNT, token));
+    }
+
+    @Test
+    void sortsByRangeColumn() {
+        ClientSearchCriteria criteria = new ClientSearchCriteria();
+        assertEquals(ClientSearchCriteria.SortKey.ID, criteria.sortKey());
+
+        criteria.setBirthDateFrom(LocalDate.of(1990, 1, 1));
+        assertEquals(ClientSearchCriteria.SortKey.BIRTH_DATE, criteria.sortKey());
+
+        criteria.setCreditAmountTo(new BigDecimal("5000000"));
+        assertEquals(ClientSearchCriteria.SortKey.CREDIT_AMOUNT, criteria.sortKey());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsRequestsAboveTheLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileFullyUsedRequestsStayFast() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, THRESHOLD, 0.5);
+
+        for (int round = 0; round < 20; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+            }
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void shrinksOnSlowOrOverloadedRequestsDownToTheMinimum() {
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, THRESHOLD, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), true);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
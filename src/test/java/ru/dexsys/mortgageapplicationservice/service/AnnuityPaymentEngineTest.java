@@ -0,0 +1,38 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnnuityPaymentEngineTest {
+
+    private final AnnuityPaymentEngine paymentEngine = new AnnuityPaymentEngine(new BigDecimal("7.5"));
+
+    @Test
+    void calculatesMonthlyPaymentLikeCalculatorService() {
+        assertEquals(new BigDecimal("35610.53"),
+                paymentEngine.calculateMonthlyPayment(new BigDecimal("3000000"), 120));
+    }
+
+    @Test
+    void zeroDurationRequiresWholeAmount() {
+        assertEquals(new BigDecimal("3000000.00"),
+                paymentEngine.calculateMonthlyPayment(new BigDecimal("3000000"), 0));
+    }
+
+    @Test
+    void supportsZeroRate() {
+        AnnuityPaymentEngine zeroRateEngine = new AnnuityPaymentEngine(BigDecimal.ZERO);
+        assertEquals(new BigDecimal("25000.00"),
+                zeroRateEngine.calculateMonthlyPayment(new BigDecimal("3000000"), 120));
+    }
+
+    @Test
+    void rejectsDurationOutsideValidationRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentEngine.calculateMonthlyPayment(BigDecimal.ONE, 1201));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dexsys.mortgageapplicationservice.config.StatsProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.model.ApplicationStats;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ApplicationStatisticsTest {
+
+    private final ApplicationStatistics statistics = new ApplicationStatistics(null, new StatsProperties());
+
+    private static Client client(Client.Gender gender, String creditAmount, Client.MortgageApplicationStatus status) {
+        Client client = new Client();
+        client.setGender(gender);
+        client.setCreditAmount(new BigDecimal(creditAmount));
+        client.setStatus(status);
+        return client;
+    }
+
+    @Test
+    void startsEmpty() {
+        ApplicationStats stats = statistics.getStats();
+
+        assertEquals(0, stats.getApplications());
+        assertNull(stats.getApprovalRate());
+        assertEquals(9, stats.getCreditAmountHistogram().size());
+    }
+
+    @Test
+    void countsCreatedApplications() {
+        statistics.recordCreated(client(Client.Gender.MALE, "3000000", Client.MortgageApplicationStatus.APPROVED));
+        statistics.recordCreated(client(Client.Gender.FEMALE, "500000", Client.MortgageApplicationStatus.DENIED));
+        statistics.recordCreated(client(Client.Gender.FEMALE, "100000000", Client.MortgageApplicationStatus.APPROVED));
+
+        ApplicationStats stats = statistics.getStats();
+        assertEquals(3, stats.getApplications());
+        assertEquals(2L, stats.getByStatus().get("APPROVED"));
+        assertEquals(1L, stats.getByStatus().get("DENIED"));
+        assertEquals(2L, stats.getByGender().get("FEMALE"));
+        assertEquals(new BigDecimal("0.6667"), stats.getApprovalRate());
+        assertEquals(new BigDecimal("103500000.00"), stats.getTotalCreditAmount());
+        assertEquals(1, stats.getCreditAmountHistogram().get(0).getApplications());
+        assertEquals(1, stats.getCreditAmountHistogram().get(3).getApplications());
+        assertEquals(1, stats.getCreditAmountHistogram().get(8).getApplications());
+        assertNull(stats.getCreditAmountHistogram().get(8).getUpTo());
+    }
+
+    @Test
+    void movesDecidedApplicationsOutOfProcessing() {
+        statistics.recordCreated(client(Client.Gender.MALE, "3000000", Client.MortgageApplicationStatus.PROCESSING));
+        statistics.recordCreated(client(Client.Gender.MALE, "3000000", Client.MortgageApplicationStatus.PROCESSING));
+        statistics.recordDecision(Client.MortgageApplicationStatus.APPROVED);
+
+        ApplicationStats stats = statistics.getStats();
+        assertEquals(1L, stats.getByStatus().get("PROCESSING"));
+        assertEquals(1L, stats.getByStatus().get("APPROVED"));
+        assertEquals(new BigDecimal("1.0000"), stats.getApprovalRate());
+    }
+
+    @Test
+    void sumsCreditAmountsExactly() {
+        for (int i = 0; i < 10_000; i++) {
+            statistics.recordCreated(client(Client.Gender.MALE, "999999999.99", Client.MortgageApplicationStatus.APPROVED));
+        }
+
+        assertEquals(new BigDecimal("9999999999900.00"), statistics.getStats().getTotalCreditAmount());
+    }
+
+    @Test
+    void countsWritesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.recordCreated(client(Client.Gender.MALE, "3000000", Client.MortgageApplicationStatus.APPROVED));
+            assertEquals(0, statistics.getStats().getApplications());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, statistics.getStats().getApplications());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
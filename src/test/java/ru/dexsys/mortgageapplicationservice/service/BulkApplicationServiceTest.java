@@ -0,0 +1,86 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.dexsys.mortgageapplicationservice.config.BulkProperties;
+import ru.dexsys.mortgageapplicationservice.config.DecisionProperties;
+import ru.dexsys.mortgageapplicationservice.config.ThreadingProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkApplicationServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicInteger saves = new AtomicInteger();
+    private final List<Client> saved = new ArrayList<>();
+    private final ApplicationDecisionService decisionService = new ApplicationDecisionService(null, null,
+            new DecisionProperties(), new ThreadingProperties(), null, new SimpleMeterRegistry()) {
+        @Override
+        public void decide(Client client) {
+            client.setStatus(Client.MortgageApplicationStatus.APPROVED);
+        }
+    };
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        decisionService.shutdown();
+    }
+
+    @Test
+    void reportsFailedChunkAndGoesOn() throws Exception {
+        ClientService clientService = new ClientService(null, null, null, null, null, null) {
+            @Override
+            public Set<String> findExistingIdentityHashes(Collection<String> identityHashes) {
+                return Set.of();
+            }
+
+            @Override
+            public void saveClients(List<Client> clients) {
+                if (saves.incrementAndGet() == 1) {
+                    throw new DataAccessResourceFailureException("connection lost");
+                }
+                saved.addAll(clients);
+            }
+        };
+        BulkProperties properties = new BulkProperties();
+        properties.setBatchSize(2);
+        BulkApplicationService service = new BulkApplicationService(clientService, decisionService,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, properties);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            body.append("{\"firstName\":\"Иван\",\"secondName\":\"Иванович\",\"lastName\":\"Иванов\",")
+                    .append("\"passport\":\"94101234").append(50 + i).append("\",\"birthDate\":\"1990-10-23\",")
+                    .append("\"gender\":\"MALE\",\"salary\":80000,\"creditAmount\":3000000,")
+                    .append("\"durationInMonths\":120}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.process(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        List<Integer> codes = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode result = objectMapper.readTree(lines[i]);
+            assertEquals(i, result.get("index").asInt());
+            codes.add(result.get("code").asInt());
+        }
+        assertEquals(List.of(500, 500, 201, 201), codes);
+        assertEquals(2, saved.size());
+    }
+}
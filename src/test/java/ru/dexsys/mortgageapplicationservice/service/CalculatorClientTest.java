@@ -0,0 +1,150 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import ru.dexsys.mortgageapplicationservice.config.CalculatorProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalculatorClientTest {
+
+    private static final BigDecimal CREDIT_AMOUNT = new BigDecimal("3000000");
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile int responseStatus = 200;
+    private HttpServer server;
+    private CalculatorProperties properties;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/calculate", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"creditAmount\":3000000,\"durationInMonths\":120,\"monthlyPayment\":35610.53}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        properties = new CalculatorProperties();
+        properties.setUrl("http://localhost:" + server.getAddress().getPort() + "/calculate");
+        properties.setReadTimeout(Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void coalescesConcurrentCallsForSameCalculation() throws Exception {
+        delayMillis = 300;
+        CalculatorClient client = new CalculatorClient(properties, new RestTemplateBuilder(), new SimpleMeterRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Optional<BigDecimal>>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return client.calculateMonthlyPayment(CREDIT_AMOUNT, 120);
+            }));
+        }
+        start.countDown();
+
+        for (Future<Optional<BigDecimal>> result : results) {
+            assertEquals(Optional.of(new BigDecimal("35610.53")), result.get());
+        }
+        assertEquals(1, requests.get());
+        callers.shutdown();
+    }
+
+    @Test
+    void followersWaitWhileLeaderIsQueuedInBulkhead() throws Exception {
+        delayMillis = 350;
+        properties.setReadTimeout(Duration.ofMillis(500));
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxWait(Duration.ofSeconds(1));
+        CalculatorClient client = new CalculatorClient(properties, new RestTemplateBuilder(), new SimpleMeterRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+
+        // Holds the only permit, so the leader for 120 months spends longer than the read timeout in total
+        Future<Optional<BigDecimal>> other = callers.submit(() -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 121));
+        Thread.sleep(50);
+        Future<Optional<BigDecimal>> leader = callers.submit(() -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 120));
+        Thread.sleep(50);
+        Future<Optional<BigDecimal>> follower =
+                callers.submit(() -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 120));
+
+        assertEquals(Optional.of(new BigDecimal("35610.53")), other.get());
+        assertEquals(Optional.of(new BigDecimal("35610.53")), leader.get());
+        assertEquals(Optional.of(new BigDecimal("35610.53")), follower.get());
+        assertEquals(2, requests.get());
+        callers.shutdown();
+    }
+
+    @Test
+    void servesRepeatedCalculationFromCache() {
+        CalculatorClient client = new CalculatorClient(properties, new RestTemplateBuilder(), new SimpleMeterRegistry());
+
+        client.calculateMonthlyPayment(CREDIT_AMOUNT, 120);
+        client.calculateMonthlyPayment(new BigDecimal("3000000.00"), 120);
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() {
+        responseStatus = 500;
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        CalculatorClient client = new CalculatorClient(properties, new RestTemplateBuilder(), new SimpleMeterRegistry());
+
+        assertThrows(CalculatorException.class, () -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 120));
+        assertThrows(CalculatorException.class, () -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 121));
+        assertThrows(CalculatorException.class, () -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 122));
+
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState());
+    }
+
+    @Test
+    void failsFastWhenCalculatorIsSlowerThanReadTimeout() {
+        delayMillis = 1000;
+        properties.setReadTimeout(Duration.ofMillis(100));
+        CalculatorClient client = new CalculatorClient(properties, new RestTemplateBuilder(), new SimpleMeterRegistry());
+
+        assertThrows(CalculatorException.class, () -> client.calculateMonthlyPayment(CREDIT_AMOUNT, 120));
+    }
+}
@@ -0,0 +1,111 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.dexsys.mortgageapplicationservice.config.ClientCacheProperties;
+import ru.dexsys.mortgageapplicationservice.config.ReplicaDataSourceProperties;
+import ru.dexsys.mortgageapplicationservice.config.StatsProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.repository.ClientRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientCacheTest {
+
+    private final ClientCache cache = new ClientCache(new ClientCacheProperties(), new SimpleMeterRegistry());
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void cachesOnlyDecidedApplications() {
+        Client approved = client(Client.MortgageApplicationStatus.APPROVED);
+        Client denied = client(Client.MortgageApplicationStatus.DENIED);
+        Client processing = client(Client.MortgageApplicationStatus.PROCESSING);
+        Client undecided = client(null);
+
+        for (Client client : new Client[]{approved, denied, processing, undecided}) {
+            cache.putIfDecided(client);
+        }
+
+        assertSame(approved, cache.get(approved.getId()).orElseThrow());
+        assertSame(denied, cache.get(denied.getId()).orElseThrow());
+        assertFalse(cache.get(processing.getId()).isPresent());
+        assertFalse(cache.get(undecided.getId()).isPresent());
+    }
+
+    @Test
+    void invalidateDropsTheApplication() {
+        Client approved = client(Client.MortgageApplicationStatus.APPROVED);
+        cache.putIfDecided(approved);
+
+        cache.invalidate(approved.getId());
+
+        assertFalse(cache.get(approved.getId()).isPresent());
+    }
+
+    @Test
+    void lookupsAreServedFromTheCacheOnceDecided() {
+        Client approved = client(Client.MortgageApplicationStatus.APPROVED);
+        ClientService clientService = clientService(approved);
+
+        clientService.findClientById(approved.getId().toString());
+        clientService.findClientById(approved.getId().toString());
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void pollingAnUndecidedApplicationAlwaysReachesTheDatabase() {
+        Client processing = client(Client.MortgageApplicationStatus.PROCESSING);
+        ClientService clientService = clientService(processing);
+
+        clientService.findClientById(processing.getId().toString());
+        clientService.findClientById(processing.getId().toString());
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void decisionInvalidatesTheApplication() {
+        Client approved = client(Client.MortgageApplicationStatus.APPROVED);
+        ClientService clientService = clientService(approved);
+        cache.putIfDecided(approved);
+
+        clientService.updateDecision(approved.getId(), Client.MortgageApplicationStatus.DENIED, null);
+
+        assertFalse(cache.get(approved.getId()).isPresent());
+        assertTrue(clientService.findClientById(approved.getId().toString()).isPresent());
+        assertEquals(1, lookups.get());
+    }
+
+    private ClientService clientService(Client stored) {
+        ClientRepository repository = (ClientRepository) Proxy.newProxyInstance(ClientRepository.class.getClassLoader(),
+                new Class<?>[]{ClientRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByIdAndCreatedAt":
+                            lookups.incrementAndGet();
+                            return Optional.of(stored);
+                        case "updateDecision":
+                            return 1;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return new ClientService(repository, null, cache, null, new RecentWrites(new ReplicaDataSourceProperties()),
+                new ApplicationStatistics(null, new StatsProperties()));
+    }
+
+    private static Client client(Client.MortgageApplicationStatus status) {
+        Client client = new Client();
+        client.setStatus(status);
+        client.setMonthlyPayment(status == Client.MortgageApplicationStatus.APPROVED ? new BigDecimal("1234.56") : null);
+        return client;
+    }
+}
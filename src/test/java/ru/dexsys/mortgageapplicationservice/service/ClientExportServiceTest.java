@@ -0,0 +1,99 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dexsys.mortgageapplicationservice.config.ExportProperties;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ClientExportServiceTest {
+
+    private static final String COLUMNS = "(id UUID PRIMARY KEY, first_name VARCHAR(255), second_name VARCHAR(255), " +
+            "last_name VARCHAR(255), passport VARCHAR(255), birth_date DATE, gender VARCHAR(255), " +
+            "salary DECIMAL(19, 2), credit_amount DECIMAL(19, 2), duration_in_months INT, status VARCHAR(255), " +
+            "monthly_payment DECIMAL(19, 2))";
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS clients " + COLUMNS);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS clients_archive " + COLUMNS);
+        jdbcTemplate.execute("DELETE FROM clients");
+        jdbcTemplate.execute("DELETE FROM clients_archive");
+        String insert = "INSERT INTO %s VALUES (?, 'Иван', 'Иванович', ?, '9410123456', DATE '1990-10-23', " +
+                "'MALE', 80000.00, 3000000.00, 120, ?, ?)";
+        jdbcTemplate.update(String.format(insert, "clients"),
+                new UUID(0, 1), "Иванов", "APPROVED", 35610.53);
+        jdbcTemplate.update(String.format(insert, "clients"),
+                new UUID(0, 2), "Petrov, Jr.", "PROCESSING", null);
+        jdbcTemplate.update(String.format(insert, "clients_archive"),
+                new UUID(0, 3), "Сидоров", "DENIED", null);
+    }
+
+    @Test
+    void writesChunksOutsideTheirTransactions() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                csv.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                csv.write(b, off, len);
+            }
+        };
+
+        long exported = service(2).export(ExportFormat.CSV, out);
+
+        assertEquals(3, exported);
+        assertEquals("id,firstName,secondName,lastName,passport,birthDate,gender," +
+                        "salary,creditAmount,durationInMonths,status,monthlyPayment\n" +
+                        "00000000-0000-0000-0000-000000000001,Иван,Иванович,Иванов,9410123456,1990-10-23,MALE," +
+                        "80000.00,3000000.00,120,APPROVED,35610.53\n" +
+                        "00000000-0000-0000-0000-000000000002,Иван,Иванович,\"Petrov, Jr.\",9410123456,1990-10-23," +
+                        "MALE,80000.00,3000000.00,120,PROCESSING,\n" +
+                        "00000000-0000-0000-0000-000000000003,Иван,Иванович,Сидоров,9410123456,1990-10-23,MALE," +
+                        "80000.00,3000000.00,120,DENIED,\n",
+                csv.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service(5000).export(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":\"00000000-0000-0000-0000-000000000001\",\"firstName\":\"Иван\"," +
+                "\"secondName\":\"Иванович\",\"lastName\":\"Иванов\",\"passport\":\"9410123456\"," +
+                "\"birthDate\":\"1990-10-23\",\"gender\":\"MALE\",\"salary\":80000.00,\"creditAmount\":3000000.00," +
+                "\"durationInMonths\":120,\"status\":\"APPROVED\",\"monthlyPayment\":35610.53}", lines[0]);
+    }
+
+    private ClientExportService service(int chunkSize) {
+        ExportProperties properties = new ExportProperties();
+        properties.setChunkSize(chunkSize);
+        return new ClientExportService(dataSource, new DataSourceTransactionManager(dataSource), new ObjectMapper(),
+                properties);
+    }
+}
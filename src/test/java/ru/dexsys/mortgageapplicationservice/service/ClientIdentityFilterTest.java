@@ -0,0 +1,45 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.junit.jupiter.api.Test;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIdentity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientIdentityFilterTest {
+
+    @Test
+    void identityHashIgnoresCaseAndSurroundingSpaces() {
+        assertEquals(ClientIdentity.hash("Иван", "Иванович", "Иванов", "9410123456"),
+                ClientIdentity.hash(" иван", "ИВАНОВИЧ ", "иванов", "9410123456"));
+        assertNotEquals(ClientIdentity.hash("Иван", "Иванович", "Иванов", "9410123456"),
+                ClientIdentity.hash("Иван", "Иванович", "Иванов", "9410123457"));
+    }
+
+    @Test
+    void reportsEverythingAsPossiblyPresentUntilWarmedUp() {
+        ClientIdentityFilter filter = new ClientIdentityFilter(1000, 0.01);
+
+        assertTrue(filter.mightContain(ClientIdentity.hash("Иван", "Иванович", "Иванов", "9410123456")));
+    }
+
+    @Test
+    void neverReportsStoredIdentityAsAbsent() {
+        ClientIdentityFilter filter = new ClientIdentityFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(ClientIdentity.hash("Иван", "Иванович", "Иванов", String.valueOf(i)));
+        }
+        filter.markWarmedUp();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(ClientIdentity.hash("Иван", "Иванович", "Иванов", String.valueOf(i))));
+            if (filter.mightContain(ClientIdentity.hash("Пётр", "Петрович", "Петров", String.valueOf(i)))) {
+                falsePositives++;
+            }
+        }
+        assertFalse(falsePositives > 50);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.dexsys.mortgageapplicationservice.config.ClientCacheProperties;
+import ru.dexsys.mortgageapplicationservice.config.ReadWriteRoutingDataSource;
+import ru.dexsys.mortgageapplicationservice.config.ReplicaDataSourceProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+import ru.dexsys.mortgageapplicationservice.entity.ClientIds;
+import ru.dexsys.mortgageapplicationservice.repository.ClientRepository;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing of the GET-by-id path through the real ClientService proxy: the same id is stored with a different
+ * last name in each database, so the name tells which one answered.
+ */
+class ClientServiceRoutingTest {
+
+    private static final DataSource PRIMARY = database("service-primary");
+    private static final DataSource REPLICA = database("service-replica");
+
+    private final UUID id = ClientIds.newId();
+    private AnnotationConfigApplicationContext context;
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        insert(PRIMARY, "Primary");
+        insert(REPLICA, "Replica");
+        context = new AnnotationConfigApplicationContext(Config.class);
+        clientService = context.getBean(ClientService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void readsFromReplica() {
+        assertEquals("Replica", clientService.findClientById(id.toString()).orElseThrow().getLastName());
+    }
+
+    @Test
+    void readsRecentWritesFromPrimary() {
+        context.getBean(RecentWrites.class).add(id);
+
+        assertEquals("Primary", clientService.findClientById(id.toString()).orElseThrow().getLastName());
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : new String[]{"clients", "clients_archive"}) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, first_name VARCHAR(255), " +
+                    "second_name VARCHAR(255), last_name VARCHAR(255), passport VARCHAR(255), birth_date DATE, " +
+                    "gender VARCHAR(255), salary DECIMAL(19, 2), credit_amount DECIMAL(19, 2), " +
+                    "duration_in_months INT, status VARCHAR(255), monthly_payment DECIMAL(19, 2), " +
+                    "identity_hash VARCHAR(64), created_at TIMESTAMP)");
+        }
+        return dataSource;
+    }
+
+    private void insert(DataSource dataSource, String lastName) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DELETE FROM clients");
+        jdbcTemplate.update("INSERT INTO clients (id, last_name, status, created_at) VALUES (?, ?, 'APPROVED', ?)",
+                id, lastName, ClientIds.createdAt(id));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackageClasses = ClientRepository.class)
+    static class Config {
+
+        @Bean
+        public DataSource dataSource() {
+            return ReadWriteRoutingDataSource.create(PRIMARY, REPLICA);
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+            factoryBean.setDataSource(dataSource);
+            factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factoryBean.setPackagesToScan(Client.class.getPackageName());
+            return factoryBean;
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public RecentWrites recentWrites() {
+            ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+            properties.setUrl("jdbc:h2:mem:service-replica");
+            return new RecentWrites(properties);
+        }
+
+        @Bean
+        public ClientService clientService(ClientRepository clientRepository, RecentWrites recentWrites) {
+            // The cache only keeps decided applications; an empty one makes every lookup reach a database
+            ClientCache clientCache = new ClientCache(new ClientCacheProperties(), new SimpleMeterRegistry()) {
+                @Override
+                public void putIfDecided(Client client) {
+                }
+            };
+            return new ClientService(clientRepository, null, clientCache, null, recentWrites, null);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.dexsys.mortgageapplicationservice.config.GroupCommitProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCommitWriterTest {
+
+    private final AtomicReference<Runnable> beforeConnection = new AtomicReference<>(() -> {
+    });
+    private final AtomicReference<Error> statementError = new AtomicReference<>();
+    private JdbcTemplate jdbcTemplate;
+    private GroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DataSource database = new DriverManagerDataSource("jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS clients (id UUID PRIMARY KEY, first_name VARCHAR(255), " +
+                "second_name VARCHAR(255), last_name VARCHAR(255), passport VARCHAR(255), birth_date DATE, " +
+                "gender VARCHAR(255), salary DOUBLE, credit_amount DOUBLE, duration_in_months INT, " +
+                "status VARCHAR(255), monthly_payment DOUBLE, identity_hash VARCHAR(64), created_at TIMESTAMP)");
+        jdbcTemplate.execute("DELETE FROM clients");
+
+        DataSource dataSource = new DelegatingDataSource(database) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                beforeConnection.get().run();
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            Error error = method.getName().equals("prepareStatement")
+                                    ? statementError.getAndSet(null) : null;
+                            if (error != null) {
+                                throw error;
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setCommitTimeout(Duration.ofMillis(200));
+        writer = new GroupCommitWriter(properties, dataSource, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        beforeConnection.set(() -> {
+        });
+        writer.shutdown();
+    }
+
+    private static Client client(String passport) {
+        Client client = new Client();
+        client.setFirstName("Иван");
+        client.setSecondName("Иванович");
+        client.setLastName("Иванов");
+        client.setPassport(passport);
+        return client;
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients", Integer.class);
+    }
+
+    @Test
+    void writesClient() {
+        assertTrue(writer.insert(client("1")));
+        assertEquals(1, rows());
+    }
+
+    @Test
+    void keepsWritingAfterGroupFailsWithError() {
+        statementError.set(new OutOfMemoryError("simulated"));
+
+        assertThrows(IllegalStateException.class, () -> writer.insert(client("1")));
+        assertTrue(writer.insert(client("2")));
+        assertEquals(1, rows());
+    }
+
+    @Test
+    void withdrawsRowsNotPickedUpInTime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        beforeConnection.set(() -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<Boolean> inFlight = CompletableFuture.supplyAsync(() -> writer.insert(client("1")));
+        assertTrue(writing.await(1, TimeUnit.SECONDS));
+        // The writer is stuck on the first group, so the second row is never picked up
+        assertFalse(writer.insert(client("2")));
+
+        release.countDown();
+        assertTrue(inFlight.get(1, TimeUnit.SECONDS));
+        assertEquals(1, rows());
+    }
+}
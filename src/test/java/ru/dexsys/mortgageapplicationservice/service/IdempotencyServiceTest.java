@@ -0,0 +1,169 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.dexsys.mortgageapplicationservice.config.IdempotencyProperties;
+import ru.dexsys.mortgageapplicationservice.entity.Client;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public int update(String sql, Object... args) {
+                // H2 understands ON CONFLICT DO NOTHING only without a conflict target
+                return super.update(sql.replace("ON CONFLICT (idempotency_key)", "ON CONFLICT"), args);
+            }
+        };
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_keys (idempotency_key VARCHAR(255) PRIMARY KEY, " +
+                "fingerprint VARCHAR(64) NOT NULL, status_code INT, location VARCHAR(2048), body TEXT, " +
+                "created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("DELETE FROM idempotency_keys");
+    }
+
+    @Test
+    void replayDoesNotRunTheRequestAgain() {
+        AtomicInteger runs = new AtomicInteger();
+        Client client = new Client();
+
+        newService().execute("key", client, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.created(URI.create("/clients/1")).build();
+        });
+        // Another instance, so the retry is answered from the table rather than the local cache
+        ResponseEntity<?> replayed = newService().execute("key", client, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.created(URI.create("/clients/2")).build();
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals(URI.create("/clients/1"), replayed.getHeaders().getLocation());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void changedBodyIsRejected() {
+        Client changed = new Client();
+        changed.setFirstName("Пётр");
+        newService().execute("key", new Client(), () -> ResponseEntity.ok().build());
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> newService().execute("key", changed, () -> ResponseEntity.ok().build()));
+    }
+
+    @Test
+    void serverErrorIsNotStored() {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyService service = newService();
+        Client client = new Client();
+
+        ResponseEntity<?> failed = service.execute("key", client, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        ResponseEntity<?> retried = service.execute("key", client, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, failed.getStatusCode());
+        assertEquals(HttpStatus.OK, retried.getStatusCode());
+        assertEquals(2, runs.get());
+        assertNull(retried.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void concurrentInstanceDoesNotRunTheRequest() {
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        IdempotencyService first = newService();
+        IdempotencyService second = newService();
+        AtomicInteger runs = new AtomicInteger();
+        Client client = new Client();
+
+        ResponseEntity<?> response = first.execute("key", client, () -> {
+            runs.incrementAndGet();
+            // The other instance gets the same key while this one still holds its reservation
+            assertThrows(IdempotencyKeyInProgressException.class, () -> second.execute("key", client, () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok().build();
+            }));
+            return ResponseEntity.created(URI.create("/clients/1")).build();
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(URI.create("/clients/1"),
+                second.execute("key", client, () -> ResponseEntity.ok().build()).getHeaders().getLocation());
+    }
+
+    @Test
+    void abandonedReservationIsTakenOver() {
+        properties.setReservationTimeout(Duration.ofMinutes(1));
+        Client client = new Client();
+        jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?)",
+                "key", IdempotencyService.fingerprint(client),
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(2))));
+
+        ResponseEntity<?> response = newService().execute("key", client, () -> ResponseEntity.ok().build());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void waitingForAnUnfinishedRequestIsBounded() throws Exception {
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        IdempotencyService service = newService();
+        Client client = new Client();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> slow = CompletableFuture.supplyAsync(() ->
+                service.execute("key", client, () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok().build();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IdempotencyKeyInProgressException.class,
+                () -> service.execute("key", client, () -> ResponseEntity.ok().build()));
+
+        release.countDown();
+        assertEquals(HttpStatus.OK, slow.get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(jdbcTemplate, new ObjectMapper(), properties, new SimpleMeterRegistry());
+    }
+}
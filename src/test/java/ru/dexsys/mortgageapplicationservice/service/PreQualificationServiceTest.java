@@ -0,0 +1,59 @@
+package ru.dexsys.mortgageapplicationservice.service;
+
+import org.junit.jupiter.api.Test;
+import ru.dexsys.mortgageapplicationservice.model.PreQualificationOption;
+import ru.dexsys.mortgageapplicationservice.model.PreQualificationResponse;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreQualificationServiceTest {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final AnnuityPaymentEngine paymentEngine = new AnnuityPaymentEngine(new BigDecimal("7.5"));
+    private final PreQualificationService preQualificationService = new PreQualificationService(paymentEngine);
+
+    @Test
+    void returnsLargestApprovedAmountForEveryDuration() {
+        BigDecimal salary = new BigDecimal("80000");
+        PreQualificationResponse response = preQualificationService.preQualify(salary);
+
+        assertEquals(AnnuityPaymentEngine.MAX_DURATION_IN_MONTHS, response.getOptions().size());
+        for (PreQualificationOption option : response.getOptions()) {
+            BigDecimal monthlyPayment = paymentEngine.calculateMonthlyPayment(
+                    option.getCreditAmount(), option.getDurationInMonths());
+            BigDecimal nextMonthlyPayment = paymentEngine.calculateMonthlyPayment(
+                    option.getCreditAmount().add(BigDecimal.ONE), option.getDurationInMonths());
+
+            assertEquals(monthlyPayment, option.getMonthlyPayment());
+            assertTrue(salary.compareTo(monthlyPayment.multiply(TWO)) > 0);
+            assertFalse(salary.compareTo(nextMonthlyPayment.multiply(TWO)) > 0);
+        }
+    }
+
+    @Test
+    void agreesWithApplicationDecision() {
+        PreQualificationOption option = preQualificationService.preQualify(new BigDecimal("80000"))
+                .getOptions().get(119);
+
+        assertEquals(120, option.getDurationInMonths());
+        assertTrue(option.getCreditAmount().compareTo(new BigDecimal("3000000")) >= 0);
+    }
+
+    @Test
+    void capsAmountAtValidationMaximum() {
+        PreQualificationOption option = preQualificationService.preQualify(new BigDecimal("1000000000"))
+                .getOptions().get(1199);
+
+        assertEquals(BigDecimal.valueOf(PreQualificationService.MAX_CREDIT_AMOUNT), option.getCreditAmount());
+    }
+
+    @Test
+    void offersNothingWithoutSalary() {
+        assertTrue(preQualificationService.preQualify(BigDecimal.ZERO).getOptions().isEmpty());
+    }
+}